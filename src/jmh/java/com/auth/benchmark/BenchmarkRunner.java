@@ -0,0 +1,43 @@
+package com.auth.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ejecuta los benchmarks dos veces: con un hilo y con N hilos ({@code -Djmh.threads}, por defecto
+ * el número de procesadores), siempre con el perfilador de asignaciones (gc).
+ * Los resultados se guardan en target/jmh/results-t{hilos}.json como línea base comparable.
+ * Los argumentos se interpretan como opciones de JMH (p. ej. {@code -f 1 -wi 2 -i 3 JwtTokenFilter}).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        int threads = Integer.getInteger("jmh.threads", 0);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+
+        Path resultDir = Path.of("target", "jmh");
+        Files.createDirectories(resultDir);
+        for (int t : threads == 1 ? new int[]{1} : new int[]{1, threads}) {
+            OptionsBuilder options = new OptionsBuilder();
+            options.parent(cli);
+            if (cli.getIncludes().isEmpty()) {
+                options.include("com\\.auth\\..*Benchmark");
+            }
+            new Runner(options
+                    .threads(t)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve("results-t" + t + ".json").toString())
+                    .build()).run();
+        }
+    }
+}
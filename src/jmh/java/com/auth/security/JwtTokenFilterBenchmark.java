@@ -0,0 +1,85 @@
+package com.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ruta completa del filtro JWT por petición: lectura de la cabecera, claims (desde la caché de
+ * tokens verificados), comprobación de revocación y carga del principal en el SecurityContext.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+        JwtTokenFilter filter;
+        String token;
+
+        @Setup
+        public void setUp() {
+            JwtTokenProvider provider = JwtTokenProviderBenchmark.provider(10000);
+            // El repositorio solo se usa al revocar o al sincronizar, no en isRevoked
+            TokenRevocationRegistry registry = new TokenRevocationRegistry(null, 100000, 0.01, 30000);
+            filter = new JwtTokenFilter(provider, registry, new SimpleMeterRegistry());
+            token = provider.createToken("user@example.com", "CUSTOMER", "65f0c0ffee0000000000cafe");
+        }
+    }
+
+    /**
+     * Petición y respuesta por hilo: los mocks de servlet no son seguros entre hilos.
+     */
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest authenticated;
+        MockHttpServletRequest anonymous;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(Filter filter) {
+            authenticated = new MockHttpServletRequest("POST", "/graphql");
+            authenticated.addHeader("Authorization", "Bearer " + filter.token);
+            anonymous = new MockHttpServletRequest("POST", "/graphql");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticated(Filter filter, Exchange exchange) throws Exception {
+        return run(filter, exchange.authenticated, exchange.response);
+    }
+
+    @Benchmark
+    public Authentication anonymous(Filter filter, Exchange exchange) throws Exception {
+        return run(filter, exchange.anonymous, exchange.response);
+    }
+
+    private static Authentication run(Filter filter, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        filter.filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,79 @@
+package com.auth.security;
+
+import com.auth.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de tokens HS256.
+ * validateToken se mide con la caché de tokens verificados (caso habitual: el mismo token en
+ * varias peticiones) y sin ella (primera petición con el token: parseo y firma completos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(10000);
+        uncachedProvider = provider(0);
+        token = cachedProvider.createToken("user@example.com", "CUSTOMER", "65f0c0ffee0000000000cafe");
+    }
+
+    /**
+     * Proveedor sin MongoDB: el UserDetailsService devuelve siempre el mismo usuario.
+     */
+    static JwtTokenProvider provider(int cacheMaxSize) {
+        User user = new User();
+        user.setId("65f0c0ffee0000000000cafe");
+        user.setEmail("user@example.com");
+        user.setRole("CUSTOMER");
+        JwtTokenProvider provider = new JwtTokenProvider(username -> user, new JwtKeyManager("HS256", "", ""),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", "benchmark-secret-key-with-at-least-256-bits-for-hs256");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    @Benchmark
+    public String createToken() {
+        return cachedProvider.createToken("user@example.com", "CUSTOMER", "65f0c0ffee0000000000cafe");
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return cachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return cachedProvider.getUsername(token);
+    }
+}
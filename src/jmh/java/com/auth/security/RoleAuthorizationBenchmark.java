@@ -0,0 +1,61 @@
+package com.auth.security;
+
+import com.auth.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobación de roles de los resolvers GraphQL, con acceso concedido y denegado.
+ * El SecurityContext es por hilo, así que el estado también lo es.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleAuthorizationBenchmark {
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId("65f0c0ffee0000000000cafe");
+        user.setEmail("seller@example.com");
+        user.setRole("SELLER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public User checkRolesAllowed() {
+        return RoleAuthorizationHandler.checkRoles("ADMIN", "SELLER");
+    }
+
+    @Benchmark
+    public Object checkRolesDenied() {
+        try {
+            return RoleAuthorizationHandler.checkRoles("ADMIN");
+        } catch (AccessDeniedException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.auth.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Mapa concurrente con un número máximo de claves, base de las cachés y contadores en memoria.
+ * <ul>
+ *     <li>Las lecturas son las de {@link ConcurrentHashMap}, sin bloqueos.</li>
+ *     <li>Al llenarse, un único hilo descarta entradas en bloque hasta el 90 % de la capacidad, en el orden
+ *     indicado (p. ej. las que expiran antes primero): el recorrido completo se amortiza entre muchas inserciones.</li>
+ *     <li>Solo se descartan las entradas que cumplen {@code evictable}; si no queda espacio, la clave nueva no se guarda
+ *     y no se vuelve a intentar el descarte durante un segundo.</li>
+ * </ul>
+ * Las inserciones que encuentran el mapa lleno esperan a que termine el descarte en curso; el tamaño puede
+ * superar el máximo como mucho en tantas entradas como hilos insertando a la vez.
+ */
+public class BoundedMap<K, V> {
+
+    private static final long EVICTION_BACKOFF_MILLIS = 1000;
+
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final Comparator<? super V> evictionOrder;
+    private final Predicate<? super V> evictable;
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private volatile long evictionBackoffUntil;
+
+    /**
+     * @param maxSize Número máximo de claves; 0 o menos desactiva el mapa (no guarda nada)
+     * @param evictionOrder Orden de descarte: las primeras entradas se descartan antes
+     */
+    public BoundedMap(int maxSize, Comparator<? super V> evictionOrder) {
+        this(maxSize, evictionOrder, value -> true);
+    }
+
+    /**
+     * @param evictable Entradas que pueden descartarse para dejar espacio
+     */
+    public BoundedMap(int maxSize, Comparator<? super V> evictionOrder, Predicate<? super V> evictable) {
+        this.maxSize = maxSize;
+        this.lowWaterMark = maxSize - Math.max(maxSize / 10, 1);
+        this.evictionOrder = evictionOrder;
+        this.evictable = evictable;
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @return false si el mapa está desactivado o lleno de entradas que no pueden descartarse
+     */
+    public boolean put(K key, V value) {
+        if (!hasRoomFor(key)) {
+            return false;
+        }
+        entries.put(key, value);
+        return true;
+    }
+
+    /**
+     * Igual que {@link ConcurrentHashMap#compute}, atómico para la clave. Si la clave no existe y no hay
+     * espacio, se devuelve el resultado de la función sin guardarlo.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (!hasRoomFor(key)) {
+            return function.apply(key, null);
+        }
+        return entries.compute(key, function);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void remove(K key, V value) {
+        entries.remove(key, value);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean hasRoomFor(K key) {
+        if (maxSize <= 0) {
+            return false;
+        }
+        if (entries.size() < maxSize || entries.containsKey(key)) {
+            return true;
+        }
+        if (evictionBackoffUntil > System.currentTimeMillis()) {
+            return false;
+        }
+        evictionLock.lock();
+        try {
+            if (entries.size() >= maxSize) {
+                evict();
+            }
+            if (entries.size() >= maxSize) {
+                evictionBackoffUntil = System.currentTimeMillis() + EVICTION_BACKOFF_MILLIS;
+                return false;
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evict() {
+        List<Map.Entry<K, V>> candidates = new ArrayList<>();
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            if (evictable.test(entry.getValue())) {
+                candidates.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        candidates.sort(Map.Entry.comparingByValue(evictionOrder));
+        for (int i = 0; i < candidates.size() && entries.size() > lowWaterMark; i++) {
+            entries.remove(candidates.get(i).getKey(), candidates.get(i).getValue());
+        }
+    }
+}
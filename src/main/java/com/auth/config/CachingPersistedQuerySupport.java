@@ -0,0 +1,37 @@
+package com.auth.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Consultas persistidas automáticas (protocolo APQ de Apollo) sobre la caché de documentos.
+ * Las peticiones sin hash también se resuelven desde la caché usando el SHA-256 de su texto,
+ * de modo que un cliente que luego envíe solo el hash encuentra el documento ya parseado.
+ */
+class CachingPersistedQuerySupport extends ApolloPersistedQuerySupport {
+
+    CachingPersistedQuerySupport(PersistedQueryCache persistedQueryCache) {
+        super(persistedQueryCache);
+    }
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        return super.getPersistedQueryId(executionInput).or(() -> Optional.of(sha256(executionInput.getQuery())));
+    }
+
+    static String sha256(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
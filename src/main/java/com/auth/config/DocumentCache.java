@@ -0,0 +1,83 @@
+package com.auth.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché acotada de documentos GraphQL ya parseados y validados, indexados por el hash SHA-256 del texto.
+ * Los documentos con errores de sintaxis o validación no se guardan.
+ */
+@Component
+public class DocumentCache implements PersistedQueryCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<Object, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DocumentCache(@Value("${graphql.document-cache.max-size:1000}") int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("graphql.documents.cache.size", documents, ConcurrentHashMap::size)
+                .description("Documentos GraphQL parseados en caché")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws PersistedQueryNotFound si el hash no está en caché y la petición no trae el texto de la consulta
+     */
+    @Override
+    public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId, ExecutionInput executionInput,
+                                                            PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        PreparsedDocumentEntry entry = documents.get(persistedQueryId);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+            throw new PersistedQueryNotFound(persistedQueryId);
+        }
+        entry = onCacheMiss.apply(query);
+        if (!entry.hasErrors()) {
+            put(persistedQueryId, entry);
+        }
+        return entry;
+    }
+
+    private void put(Object persistedQueryId, PreparsedDocumentEntry entry) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (documents.size() >= maxSize && !documents.containsKey(persistedQueryId)) {
+            // Los clientes repiten pocas operaciones; basta con descartar entradas arbitrarias
+            Iterator<Object> keys = documents.keySet().iterator();
+            while (documents.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        documents.put(persistedQueryId, entry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.documents.cache.requests")
+                .description("Consultas GraphQL por resultado de la caché de documentos")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
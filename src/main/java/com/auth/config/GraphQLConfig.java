@@ -1,7 +1,49 @@
 package com.auth.config;
-// hola 
+
+import com.auth.security.ClientIpFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+
+import java.util.Map;
 
 @Configuration
 public class GraphQLConfig {
+
+    /**
+     * Copia la IP del cliente al contexto GraphQL; los controladores la leen con @ContextValue.
+     */
+    @Bean
+    public WebGraphQlInterceptor clientIpInterceptor() {
+        return (request, chain) -> {
+            Object clientIp = request.getAttributes().get(ClientIpFilter.CLIENT_IP_ATTRIBUTE);
+            if (clientIp != null) {
+                request.configureExecutionInput((input, builder) ->
+                        builder.graphQLContext(Map.of(ClientIpFilter.CLIENT_IP_ATTRIBUTE, clientIp)).build());
+            }
+            return chain.next(request);
+        };
+    }
+
+    /**
+     * Reutiliza los documentos ya parseados y validados, y acepta consultas persistidas automáticas (APQ).
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(DocumentCache documentCache) {
+        return builder -> builder.configureGraphQl(graphQl ->
+                graphQl.preparsedDocumentProvider(new CachingPersistedQuerySupport(documentCache)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<PersistedQueryRequestFilter> persistedQueryRequestFilter(
+            ObjectMapper objectMapper, @Value("${spring.graphql.path:/graphql}") String graphqlPath) {
+        FilterRegistrationBean<PersistedQueryRequestFilter> registration =
+                new FilterRegistrationBean<>(new PersistedQueryRequestFilter(objectMapper));
+        registration.addUrlPatterns(graphqlPath);
+        return registration;
+    }
 }
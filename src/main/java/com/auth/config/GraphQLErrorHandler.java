@@ -3,6 +3,8 @@ package com.auth.config;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.graphql.execution.DataFetcherExceptionResolver;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
@@ -21,6 +23,11 @@ import java.util.Map;
 @Component
 public class GraphQLErrorHandler implements DataFetcherExceptionResolver {
 
+    private static final Logger logger = LoggerFactory.getLogger(GraphQLErrorHandler.class);
+
+    // Como máximo 5 trazas por clase de excepción cada 10 segundos
+    private final RateLimitedLogger errorLogger = new RateLimitedLogger(logger, 5, 10000);
+
     @Override
     public Mono<List<GraphQLError>> resolveException(Throwable exception, DataFetchingEnvironment environment) {
         String message;
@@ -48,6 +55,10 @@ public class GraphQLErrorHandler implements DataFetcherExceptionResolver {
                 errorCode = "NOT_FOUND";
             } else if (responseException.getStatusCode().value() == 400) {
                 errorCode = "BAD_USER_INPUT";
+            } else if (responseException.getStatusCode().value() == 429) {
+                errorCode = "TOO_MANY_REQUESTS";
+            } else if (responseException.getStatusCode().value() == 503) {
+                errorCode = "OVERLOADED";
             } else {
                 errorCode = "INTERNAL_SERVER_ERROR";
             }
@@ -62,7 +73,8 @@ public class GraphQLErrorHandler implements DataFetcherExceptionResolver {
             errorCode = "INTERNAL_SERVER_ERROR";
             
             // Registrar el error completo para depuración
-            exception.printStackTrace();
+            errorLogger.error(exception.getClass().getName(), "Error no controlado en {}: {}",
+                    environment.getExecutionStepInfo().getPath(), exception.getMessage(), exception);
         }
         
         GraphQLError error = GraphqlErrorBuilder.newError()
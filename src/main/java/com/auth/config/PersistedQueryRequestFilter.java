@@ -0,0 +1,148 @@
+package com.auth.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Spring GraphQL rechaza las peticiones sin "query", que es justo lo que envía un cliente APQ
+ * cuando solo manda el hash. Este filtro completa esas peticiones con el marcador de graphql-java
+ * para que {@link CachingPersistedQuerySupport} busque el documento por hash.
+ */
+class PersistedQueryRequestFilter extends OncePerRequestFilter {
+    private static final byte[] PERSISTED_QUERY_KEY = "\"persistedQuery\"".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    PersistedQueryRequestFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        // La gran mayoría de peticiones no son APQ: solo se parsea el JSON si aparece la clave
+        byte[] filtered = contains(body, PERSISTED_QUERY_KEY) ? withQueryMarker(body) : body;
+        filterChain.doFilter(new CachedBodyRequest(request, filtered), response);
+    }
+
+    private static boolean contains(byte[] body, byte[] key) {
+        outer:
+        for (int i = 0; i <= body.length - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (body[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Solo se reescribe el cuerpo si trae la extensión APQ ({@code extensions.persistedQuery}) sin query;
+     * en cualquier otro caso se devuelven los bytes originales.
+     */
+    private byte[] withQueryMarker(byte[] body) {
+        Map<String, Object> document;
+        try {
+            document = objectMapper.readValue(body, new TypeReference<>() {
+            });
+        } catch (IOException ex) {
+            // JSON inválido: Spring GraphQL devuelve el error habitual
+            return body;
+        }
+        if (document == null || !(document.get("extensions") instanceof Map<?, ?> extensions)
+                || !extensions.containsKey("persistedQuery")
+                || document.get("query") instanceof String query && !query.isBlank()) {
+            return body;
+        }
+        document.put("query", PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+        try {
+            return objectMapper.writeValueAsBytes(document);
+        } catch (IOException ex) {
+            return body;
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya está en memoria: se notifica de inmediato que hay datos y, una vez leídos, el final.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.auth.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rechaza antes de ejecutarlas las operaciones que superan los límites de profundidad,
+ * complejidad o alias. El error informa del coste calculado y de los límites configurados.
+ * <ul>
+ *     <li>Cada campo cuesta 1 salvo que el esquema indique otro peso con {@code @cost(weight: n)}.</li>
+ *     <li>En los campos con argumento {@code first}, el coste de sus hijos se multiplica por ese valor.</li>
+ *     <li>Los campos de introspección no cuentan.</li>
+ * </ul>
+ */
+@Component
+public class QueryBudgetInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInstrumentation.class);
+
+    private final int maxDepth;
+    private final int maxComplexity;
+    private final int maxAliases;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary complexitySummary;
+
+    public QueryBudgetInstrumentation(@Value("${graphql.limits.max-depth:12}") int maxDepth,
+                                      @Value("${graphql.limits.max-complexity:1000}") int maxComplexity,
+                                      @Value("${graphql.limits.max-aliases:30}") int maxAliases,
+                                      MeterRegistry meterRegistry) {
+        this.maxDepth = maxDepth;
+        this.maxComplexity = maxComplexity;
+        this.maxAliases = maxAliases;
+        this.meterRegistry = meterRegistry;
+        this.complexitySummary = DistributionSummary.builder("graphql.query.complexity")
+                .description("Complejidad calculada de las operaciones GraphQL")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        Budget budget = measure(parameters.getExecutionContext());
+        complexitySummary.record(budget.complexity());
+
+        String exceeded = budget.depth() > maxDepth ? "depth"
+                : budget.complexity() > maxComplexity ? "complexity"
+                : budget.aliases() > maxAliases ? "aliases"
+                : null;
+        if (exceeded != null) {
+            meterRegistry.counter("graphql.requests.rejected", "limit", exceeded).increment();
+            logger.debug("Operación GraphQL rechazada por {}: {}", exceeded, budget);
+            throw new AbortExecutionException(List.of(error(exceeded, budget)));
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    /**
+     * Recorre la operación (con fragmentos expandidos y variables ya resueltas) en post-orden,
+     * acumulando en cada campo el coste de sus hijos.
+     */
+    Budget measure(ExecutionContext executionContext) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+                .schema(executionContext.getGraphQLSchema())
+                .document(executionContext.getDocument())
+                .operationName(executionContext.getOperationDefinition().getName())
+                .coercedVariables(executionContext.getCoercedVariables())
+                .build();
+
+        Map<QueryVisitorFieldEnvironment, Integer> childCosts = new HashMap<>();
+        int[] depth = {0};
+        int[] aliases = {0};
+        traverser.visitPostOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment env) {
+                if (isIntrospection(env)) {
+                    return;
+                }
+                if (env.getField().getAlias() != null) {
+                    aliases[0]++;
+                }
+                depth[0] = Math.max(depth[0], depthOf(env));
+                long cost = weight(env.getFieldDefinition())
+                        + (long) multiplier(env) * childCosts.getOrDefault(env, 0);
+                childCosts.merge(env.getParentEnvironment(), (int) Math.min(cost, Integer.MAX_VALUE),
+                        QueryBudgetInstrumentation::saturatedAdd);
+            }
+        });
+        return new Budget(depth[0], childCosts.getOrDefault(null, 0), aliases[0]);
+    }
+
+    private GraphQLError error(String exceeded, Budget budget) {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("code", "QUERY_BUDGET_EXCEEDED");
+        extensions.put("limit", exceeded);
+        extensions.put("depth", budget.depth());
+        extensions.put("complexity", budget.complexity());
+        extensions.put("aliases", budget.aliases());
+        extensions.put("maxDepth", maxDepth);
+        extensions.put("maxComplexity", maxComplexity);
+        extensions.put("maxAliases", maxAliases);
+        return GraphqlErrorBuilder.newError()
+                .message("La consulta supera el límite de " + switch (exceeded) {
+                    case "depth" -> "profundidad";
+                    case "complexity" -> "complejidad";
+                    default -> "alias";
+                } + " permitido")
+                .extensions(extensions)
+                .build();
+    }
+
+    private static boolean isIntrospection(QueryVisitorFieldEnvironment env) {
+        for (QueryVisitorFieldEnvironment current = env; current != null; current = current.getParentEnvironment()) {
+            if (current.getField().getName().startsWith("__")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int depthOf(QueryVisitorFieldEnvironment env) {
+        int depth = 0;
+        for (QueryVisitorFieldEnvironment current = env; current != null; current = current.getParentEnvironment()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static int weight(GraphQLFieldDefinition fieldDefinition) {
+        GraphQLAppliedDirective cost = fieldDefinition.getAppliedDirective("cost");
+        if (cost == null || cost.getArgument("weight") == null) {
+            return 1;
+        }
+        Integer weight = cost.getArgument("weight").getValue();
+        return weight == null ? 1 : weight;
+    }
+
+    private static int multiplier(QueryVisitorFieldEnvironment env) {
+        Object first = env.getArguments().get("first");
+        return first instanceof Integer size && size > 0 ? size : 1;
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    record Budget(int depth, int complexity, int aliases) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.auth.config;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los mensajes repetidos de un logger: como máximo {@code permits} por clave en cada intervalo.
+ * Los mensajes descartados se cuentan y el siguiente mensaje emitido con esa clave indica cuántos se omitieron.
+ * Pensado para errores en la ruta de las peticiones (servicio caído, MongoDB no disponible), donde un
+ * log por petición satura la salida justo cuando más carga hay. Las claves deben ser un conjunto acotado
+ * (p. ej. el punto de llamada o la clase de la excepción), nunca datos de la petición.
+ */
+public class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int permits;
+    private final long intervalMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param permits Mensajes por clave que se emiten en cada intervalo
+     * @param intervalMillis Duración del intervalo
+     */
+    public RateLimitedLogger(Logger logger, int permits, long intervalMillis) {
+        this(logger, permits, intervalMillis, System::currentTimeMillis);
+    }
+
+    RateLimitedLogger(Logger logger, int permits, long intervalMillis, LongSupplier clock) {
+        this.logger = logger;
+        this.permits = permits;
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+    }
+
+    public void warn(String key, String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = acquire(key);
+        if (suppressed >= 0) {
+            logger.warn(withSuppressed(format, suppressed), withSuppressed(args, suppressed));
+        }
+    }
+
+    public void error(String key, String format, Object... args) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        long suppressed = acquire(key);
+        if (suppressed >= 0) {
+            logger.error(withSuppressed(format, suppressed), withSuppressed(args, suppressed));
+        }
+    }
+
+    /**
+     * @return -1 si el mensaje debe descartarse; si no, los mensajes omitidos desde el último emitido
+     */
+    private long acquire(String key) {
+        long now = clock.getAsLong();
+        Window window = windows.computeIfAbsent(key, k -> new Window(now));
+        if (now - window.start >= intervalMillis) {
+            synchronized (window) {
+                if (now - window.start >= intervalMillis) {
+                    window.start = now;
+                    window.emitted.set(0);
+                }
+            }
+        }
+        if (window.emitted.incrementAndGet() > permits) {
+            window.suppressed.incrementAndGet();
+            return -1;
+        }
+        return window.suppressed.getAndSet(0);
+    }
+
+    private static String withSuppressed(String format, long suppressed) {
+        return suppressed == 0 ? format : format + " ({} mensajes similares omitidos)";
+    }
+
+    /**
+     * El contador se inserta antes de la excepción: SLF4J solo la trata como tal si es el último argumento.
+     */
+    private static Object[] withSuppressed(Object[] args, long suppressed) {
+        if (suppressed == 0) {
+            return args;
+        }
+        Object[] result = Arrays.copyOf(args, args.length + 1);
+        if (args.length > 0 && args[args.length - 1] instanceof Throwable throwable) {
+            result[args.length - 1] = suppressed;
+            result[args.length] = throwable;
+        } else {
+            result[args.length] = suppressed;
+        }
+        return result;
+    }
+
+    private static final class Window {
+        private volatile long start;
+        private final AtomicInteger emitted = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.auth.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * El pool por defecto de Reactor Netty es de max(núcleos, 8) * 2 conexiones, lo que limita
+     * las llamadas concurrentes al servicio de productos cuando los hilos virtuales están activos.
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(
+            @Value("${products.service.max-connections:500}") int maxConnections,
+            @Value("${products.service.pending-acquire-max-count:1000}") int pendingAcquireMaxCount) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("products-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.auth.controller;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.model.dto.ImportUsersReport;
+import com.auth.model.dto.RegisterInput;
+import com.auth.security.RoleAuthorizationHandler;
+import com.auth.service.UserImportService;
+import com.auth.service.UserListingService;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+/**
+ * Operaciones de administración de usuarios.
+ */
+@Controller
+@RequiredArgsConstructor
+public class AdminController {
+    private final UserImportService userImportService;
+    private final UserListingService userListingService;
+
+    /**
+     * Lista los usuarios cargando de MongoDB solo los campos que selecciona la consulta.
+     */
+    @QueryMapping
+    public Connection<User> users(@Argument int first, @Argument String after, @Argument String role,
+                                  DataFetchingFieldSelectionSet selection) {
+        // Verifica que el usuario sea administrador
+        RoleAuthorizationHandler.checkAdmin();
+        List<String> fields = selection.getFields("edges/node/*").stream().map(SelectedField::getName).toList();
+        return userListingService.getUsersPage(first, after, role, fields);
+    }
+
+    @MutationMapping
+    public ImportUsersReport importUsers(@Argument List<RegisterInput> users, @Argument String role) {
+        // Verifica que el usuario sea administrador
+        RoleAuthorizationHandler.checkAdmin();
+        return userImportService.importUsers(users, role);
+    }
+}
@@ -4,14 +4,19 @@ import com.auth.model.User;
 import com.auth.model.dto.AuthPayload;
 import com.auth.model.dto.LoginInput;
 import com.auth.model.dto.RegisterInput;
+import com.auth.model.dto.TokenPayload;
+import com.auth.security.ClientIpFilter;
 import com.auth.security.RoleAuthorizationHandler;
 import com.auth.service.AuthService;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
 @Controller
 @RequiredArgsConstructor
@@ -21,7 +26,7 @@ public class AuthController {
     @QueryMapping
     public User me() {
         // Utiliza el manejador centralizado para verificar autenticación
-        return RoleAuthorizationHandler.getCurrentUser();
+        return authService.getProfile(RoleAuthorizationHandler.getCurrentUser());
     }
 
     @MutationMapping
@@ -45,22 +50,43 @@ public class AuthController {
     }
 
     @MutationMapping
-    public AuthPayload login(@Argument LoginInput input) {
-        // No requiere autenticación - cualquier usuario puede iniciar sesión
-        return authService.login(input);
+    public AuthPayload login(@Argument LoginInput input,
+                             @ContextValue(name = ClientIpFilter.CLIENT_IP_ATTRIBUTE, required = false) String clientIp) {
+        // No requiere autenticación - cualquier usuario puede iniciar sesión (con límite de intentos fallidos)
+        return authService.login(input, clientIp);
     }
 
     @MutationMapping
-    public User addToFavorites(@Argument String productId) {
+    public TokenPayload refreshToken(@Argument String refreshToken) {
+        // No requiere autenticación - el refresh token identifica al usuario
+        return authService.refreshToken(refreshToken);
+    }
+
+    @MutationMapping
+    public boolean logout(@Argument String refreshToken) {
+        // Requiere un token válido: es el que se revoca
+        return authService.logout(RoleAuthorizationHandler.getCurrentClaims(), refreshToken);
+    }
+
+    @MutationMapping
+    public boolean revokeToken(@Argument String token) {
+        // Verifica que el usuario sea administrador
+        RoleAuthorizationHandler.checkAdmin();
+        return authService.revokeToken(token);
+    }
+
+    @MutationMapping
+    public Mono<User> addToFavorites(@Argument String productId, DataFetchingFieldSelectionSet selection) {
         // Verifica que el usuario sea cliente
         User user = RoleAuthorizationHandler.checkCustomer();
-        return authService.addToFavorites(user.getId(), productId);
+        return authService.addToFavorites(user.getId(), productId, selection.contains("favorites"));
     }
 
     @MutationMapping
-    public User removeFromFavorites(@Argument String productId) {
+    public User removeFromFavorites(@Argument String productId, DataFetchingFieldSelectionSet selection) {
         // Verifica que el usuario sea cliente
         User user = RoleAuthorizationHandler.checkCustomer();
-        return authService.removeFromFavorites(user.getId(), productId);
+        // El arreglo completo solo viaja desde MongoDB si la consulta selecciona favorites
+        return authService.removeFromFavorites(user.getId(), productId, selection.contains("favorites"));
     }
 }
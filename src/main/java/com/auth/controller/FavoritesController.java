@@ -0,0 +1,105 @@
+package com.auth.controller;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.model.dto.FavoriteProduct;
+import com.auth.service.FavoritesService;
+import com.auth.service.ProductService;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resuelve los campos de favoritos de User y UserProfile solo cuando la consulta los selecciona.
+ */
+@Controller
+public class FavoritesController {
+    private static final String FAVORITES_COUNT_LOADER = "favoritesCount";
+
+    private final FavoritesService favoritesService;
+
+    /**
+     * Registra los DataLoader de la ejecución GraphQL:
+     * <ul>
+     *     <li>Productos: todos los favoriteProducts se resuelven con una sola petición al servicio de productos.</li>
+     *     <li>Conteo de favoritos: los favoritesCount de una página de usuarios se calculan con una sola agregación.</li>
+     * </ul>
+     */
+    public FavoritesController(FavoritesService favoritesService, ProductService productService,
+                               BatchLoaderRegistry batchLoaderRegistry) {
+        this.favoritesService = favoritesService;
+        batchLoaderRegistry.forTypePair(String.class, FavoriteProduct.class)
+                .registerMappedBatchLoader((productIds, environment) -> productService.findProducts(productIds));
+        batchLoaderRegistry.<String, Integer>forName(FAVORITES_COUNT_LOADER)
+                .registerMappedBatchLoader((userIds, environment) ->
+                        Mono.fromCallable(() -> favoritesService.countFavorites(userIds)));
+    }
+
+    @SchemaMapping(typeName = "User", field = "favorites")
+    public List<String> userFavorites(User user) {
+        return favoritesService.getFavorites(user);
+    }
+
+    @SchemaMapping(typeName = "User", field = "favoritesCount")
+    public CompletableFuture<Integer> userFavoritesCount(User user, DataFetchingEnvironment environment) {
+        return countFavorites(user, environment);
+    }
+
+    @SchemaMapping(typeName = "User", field = "favoritesPage")
+    public Connection<String> userFavoritesPage(User user, @Argument int first, @Argument String after) {
+        return favoritesService.getFavoritesPage(user, first, after);
+    }
+
+    @SchemaMapping(typeName = "User", field = "favoriteProducts")
+    public CompletableFuture<List<FavoriteProduct>> userFavoriteProducts(User user, DataLoader<String, FavoriteProduct> products) {
+        return loadFavoriteProducts(user, products);
+    }
+
+    @SchemaMapping(typeName = "UserProfile", field = "favorites")
+    public List<String> profileFavorites(User user) {
+        return favoritesService.getFavorites(user);
+    }
+
+    @SchemaMapping(typeName = "UserProfile", field = "favoritesCount")
+    public CompletableFuture<Integer> profileFavoritesCount(User user, DataFetchingEnvironment environment) {
+        return countFavorites(user, environment);
+    }
+
+    @SchemaMapping(typeName = "UserProfile", field = "favoritesPage")
+    public Connection<String> profileFavoritesPage(User user, @Argument int first, @Argument String after) {
+        return favoritesService.getFavoritesPage(user, first, after);
+    }
+
+    @SchemaMapping(typeName = "UserProfile", field = "favoriteProducts")
+    public CompletableFuture<List<FavoriteProduct>> profileFavoriteProducts(User user, DataLoader<String, FavoriteProduct> products) {
+        return loadFavoriteProducts(user, products);
+    }
+
+    /**
+     * Si el usuario ya trae el arreglo se cuenta en memoria; si no, el conteo se agrupa con el del resto
+     * de usuarios de la respuesta.
+     */
+    private CompletableFuture<Integer> countFavorites(User user, DataFetchingEnvironment environment) {
+        if (user.getFavorites() != null) {
+            return CompletableFuture.completedFuture(user.getFavorites().size());
+        }
+        DataLoader<String, Integer> counts = environment.getDataLoader(FAVORITES_COUNT_LOADER);
+        return counts.load(user.getId());
+    }
+
+    /**
+     * Los productos que ya no existen en el servicio de productos se omiten.
+     */
+    private CompletableFuture<List<FavoriteProduct>> loadFavoriteProducts(User user, DataLoader<String, FavoriteProduct> products) {
+        return products.loadMany(favoritesService.getFavorites(user))
+                .thenApply(loaded -> loaded.stream().filter(Objects::nonNull).toList());
+    }
+}
@@ -1,10 +1,9 @@
 package com.auth.controller;
 
-import com.auth.service.ProductService;
+import com.auth.service.DependencyHealthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,32 +11,31 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Estado del servicio a partir del último resultado de {@link DependencyHealthService};
+ * ninguna sonda hace llamadas a MongoDB ni al servicio de productos.
+ */
 @RestController
 public class HealthController implements HealthIndicator {
 
     @Autowired
-    private MongoTemplate mongoTemplate;
-    
-    @Autowired
-    private ProductService productService;
+    private DependencyHealthService dependencyHealthService;
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
-        
+        DependencyHealthService.Snapshot snapshot = dependencyHealthService.getSnapshot();
+        boolean stale = dependencyHealthService.isStale(snapshot);
+
         // Verificar estado general
-        boolean isHealthy = true;
-        
-        // Verificar conexión a MongoDB
-        boolean dbConnected = checkMongoConnection();
-        response.put("database", dbConnected ? "connected" : "disconnected");
-        if (!dbConnected) isHealthy = false;
-        
-        // Verificar conexión al servicio de productos
-        boolean productsServiceConnected = productService.isServiceAvailable();
-        response.put("products_service", productsServiceConnected ? "connected" : "disconnected");
-        // No marcamos como no saludable si falla el servicio de productos, ya que usamos circuit breaker
-        
+        boolean isHealthy = snapshot.databaseConnected() && !stale;
+
+        response.put("database", snapshot.databaseConnected() ? "connected" : "disconnected");
+        response.put("products_service", snapshot.productsServiceConnected() ? "connected" : "disconnected");
+        response.put("checked_at", snapshot.checkedAt());
+        response.put("age_ms", dependencyHealthService.getAgeMillis(snapshot));
+        response.put("stale", stale);
+
         // Información general
         response.put("status", isHealthy ? "healthy" : "unhealthy");
         response.put("timestamp", System.currentTimeMillis());
@@ -57,27 +55,15 @@ public class HealthController implements HealthIndicator {
     
     @Override
     public Health health() {
-        boolean dbConnected = checkMongoConnection();
-        
-        if (dbConnected) {
-            return Health.up()
-                    .withDetail("database", "connected")
-                    .withDetail("products_service", productService.isServiceAvailable() ? "connected" : "disconnected")
-                    .build();
-        }
-        
-        return Health.down()
-                .withDetail("database", "disconnected")
+        DependencyHealthService.Snapshot snapshot = dependencyHealthService.getSnapshot();
+        boolean stale = dependencyHealthService.isStale(snapshot);
+        Health.Builder builder = snapshot.databaseConnected() && !stale ? Health.up() : Health.down();
+
+        return builder
+                .withDetail("database", snapshot.databaseConnected() ? "connected" : "disconnected")
+                .withDetail("products_service", snapshot.productsServiceConnected() ? "connected" : "disconnected")
+                .withDetail("age_ms", dependencyHealthService.getAgeMillis(snapshot))
+                .withDetail("stale", stale)
                 .build();
     }
-    
-    private boolean checkMongoConnection() {
-        try {
-            // Intenta ejecutar un ping a la base de datos
-            mongoTemplate.executeCommand("{ ping: 1 }");
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 }
@@ -0,0 +1,32 @@
+package com.auth.controller;
+
+import com.auth.security.JwtKeyManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publica las claves públicas de firma para que otros servicios verifiquen los tokens localmente.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtKeyManager jwtKeyManager;
+
+    @Value("${jwt.keys.jwks-max-age:3600}")
+    private long jwksMaxAgeSeconds = 3600;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksMaxAgeSeconds)).cachePublic())
+                .body(Map.of("keys", jwtKeyManager.getJwks()));
+    }
+}
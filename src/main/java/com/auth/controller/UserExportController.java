@@ -0,0 +1,40 @@
+package com.auth.controller;
+
+import com.auth.security.RoleAuthorizationHandler;
+import com.auth.service.UserExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class UserExportController {
+    private final UserExportService userExportService;
+
+    /**
+     * Exporta los usuarios en NDJSON. Se escribe en el hilo de la petición (sin respuesta asíncrona)
+     * para que exportaciones largas no queden limitadas por el timeout asíncrono de Spring MVC.
+     * @param fields Campos separados por comas (id, email, firstName, lastName, role, favorites)
+     * @param role Rol por el que filtrar
+     */
+    @GetMapping("/admin/users/export")
+    public void exportUsers(@RequestParam(required = false) String fields,
+                            @RequestParam(required = false) String role,
+                            HttpServletResponse response) throws IOException {
+        // Verifica que el usuario sea administrador
+        RoleAuthorizationHandler.checkAdmin();
+        List<String> selectedFields = userExportService.resolveFields(fields);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        userExportService.export(selectedFields, role, response.getOutputStream());
+    }
+}
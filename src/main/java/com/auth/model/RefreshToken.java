@@ -0,0 +1,29 @@
+package com.auth.model;
+
+import lombok.Data;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Refresh token emitido a un usuario. Solo se guarda el hash SHA-256 del token;
+ * MongoDB elimina el documento al llegar a expiresAt (índice TTL).
+ */
+@Data
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+    @Indexed(unique = true)
+    @ToString.Exclude
+    private String tokenHash;
+    @Indexed
+    private String userId;
+    private String email;
+    private String role;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
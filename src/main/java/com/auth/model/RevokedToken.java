@@ -0,0 +1,24 @@
+package com.auth.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Token de acceso revocado antes de su expiración, identificado por su claim jti.
+ * MongoDB elimina el documento cuando el token habría expirado de todas formas (índice TTL).
+ */
+@Data
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String jti;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+    // Permite a las demás instancias leer solo las revocaciones nuevas
+    @Indexed
+    private Instant revokedAt;
+}
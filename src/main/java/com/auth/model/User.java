@@ -1,7 +1,10 @@
 package com.auth.model;
 
 import lombok.Data;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,14 +16,19 @@ import java.util.List;
 
 @Data
 @Document(collection = "users")
+// Listado de administración: filtro por rol y paginación por _id con el mismo índice
+@CompoundIndex(name = "role_id", def = "{'role': 1, '_id': 1}")
 public class User implements UserDetails {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String email;
+    @ToString.Exclude
     private String password;
     private String firstName;
     private String lastName;
     private String role;
+    // null cuando el documento se cargó sin el arreglo de favoritos (ver UserRepositoryCustom)
     private List<String> favorites = new ArrayList<>();
 
     @Override
@@ -1,10 +1,12 @@
 package com.auth.model.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class AdminRegisterInput {
     private String email;
+    @ToString.Exclude
     private String password;
     private String firstName;
     private String lastName;
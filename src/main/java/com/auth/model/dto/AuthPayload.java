@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 public class AuthPayload {
     private String token;
+    private String refreshToken;
     private User user;
     
     // Getters y setters explícitos
@@ -17,6 +18,14 @@ public class AuthPayload {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -0,0 +1,19 @@
+package com.auth.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (formato Relay).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Connection<T> {
+    private List<Edge<T>> edges = new ArrayList<>();
+    private PageInfo pageInfo;
+}
@@ -0,0 +1,13 @@
+package com.auth.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Edge<T> {
+    private String cursor;
+    private T node;
+}
@@ -0,0 +1,17 @@
+package com.auth.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un producto favorito obtenidos del servicio de productos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteProduct {
+    private String id;
+    private String name;
+    private Double price;
+}
@@ -0,0 +1,8 @@
+package com.auth.model.dto;
+
+public enum ImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.auth.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de la importación; index es su posición en la lista recibida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportUserResult {
+    private int index;
+    private String email;
+    private ImportStatus status;
+    private String id;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.auth.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportUsersReport {
+    private int created;
+    private int failed;
+    private List<ImportUserResult> results = new ArrayList<>();
+}
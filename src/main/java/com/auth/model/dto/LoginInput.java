@@ -1,10 +1,12 @@
 package com.auth.model.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class LoginInput {
     private String email;
+    @ToString.Exclude
     private String password;
     
     // Getters y setters explícitos
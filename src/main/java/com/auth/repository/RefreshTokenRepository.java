@@ -0,0 +1,12 @@
+package com.auth.repository;
+
+import com.auth.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+
+    /**
+     * Elimina todos los refresh tokens del usuario (cierre de todas sus sesiones).
+     */
+    long deleteByUserId(String userId);
+}
@@ -0,0 +1,16 @@
+package com.auth.repository;
+
+import com.auth.model.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Busca y elimina en una sola operación atómica un refresh token vigente,
+     * de modo que cada token solo puede usarse una vez aunque llegue dos veces en paralelo.
+     * @return El token eliminado, o vacío si no existe o ya expiró
+     */
+    Optional<RefreshToken> consumeByTokenHash(String tokenHash, Instant now);
+}
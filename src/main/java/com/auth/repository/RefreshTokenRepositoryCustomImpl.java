@@ -0,0 +1,23 @@
+package com.auth.repository;
+
+import com.auth.model.RefreshToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<RefreshToken> consumeByTokenHash(String tokenHash, Instant now) {
+        // El índice TTL elimina los expirados con retraso, por eso también se filtra por expiresAt
+        Query query = Query.query(Criteria.where("tokenHash").is(tokenHash).and("expiresAt").gt(now));
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, RefreshToken.class));
+    }
+}
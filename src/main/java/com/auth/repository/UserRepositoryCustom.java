@@ -0,0 +1,91 @@
+package com.auth.repository;
+
+import com.auth.model.User;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Operaciones de {@link UserRepository} implementadas directamente con MongoTemplate.
+ * Los usuarios devueltos sin el arreglo de favoritos tienen {@code favorites == null}
+ * para distinguirlos de un usuario sin favoritos.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Agrega un producto a los favoritos de un cliente con un único {@code $addToSet} atómico.
+     * @param includeFavorites true si la respuesta debe incluir el arreglo de favoritos
+     * @return El usuario actualizado, o vacío si no existe un cliente con ese ID
+     */
+    Optional<User> addFavorite(String userId, String productId, boolean includeFavorites);
+
+    /**
+     * Elimina un producto de los favoritos de un cliente con un único {@code $pull} atómico.
+     * @param includeFavorites true si la respuesta debe incluir el arreglo de favoritos
+     * @return El usuario actualizado, o vacío si no existe un cliente con ese ID
+     */
+    Optional<User> removeFavorite(String userId, String productId, boolean includeFavorites);
+
+    /**
+     * Carga solo los datos necesarios para iniciar sesión: ID, email, contraseña (hash), rol y nombre.
+     * La búsqueda usa el índice único sobre email.
+     */
+    Optional<User> findCredentialsByEmail(String email);
+
+    /**
+     * Devuelve cuáles de los emails indicados ya están registrados, con una consulta {@code $in}
+     * resuelta sobre el índice único de email.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Inserta los usuarios con una escritura masiva no ordenada: un error en un documento
+     * no detiene la inserción del resto.
+     * @return Posición en la lista y código de error de MongoDB de cada usuario no insertado
+     */
+    Map<Integer, Integer> insertUnordered(List<User> users);
+
+    /**
+     * Recorre la colección con un cursor de MongoDB, proyectando solo los campos indicados.
+     * El stream debe cerrarse para liberar el cursor.
+     * @param role Rol por el que filtrar, o null para todos
+     * @param batchSize Documentos por lote del cursor
+     */
+    Stream<Document> streamForExport(Collection<String> fields, String role, int batchSize);
+
+    /**
+     * Devuelve una página de usuarios ordenada por ID con paginación por clave ({@code _id > afterId}),
+     * resuelta sobre el índice de {@code _id} o el compuesto {@code {role, _id}} sin recorrer las páginas previas.
+     * @param role Rol por el que filtrar, o null para todos
+     * @param afterId ID del último usuario de la página anterior, o null para empezar desde el inicio
+     * @param fields Campos a proyectar además del ID; sin "favorites" el usuario se devuelve con {@code favorites == null}
+     */
+    List<User> findPage(String role, String afterId, int limit, Collection<String> fields);
+
+    /**
+     * Carga el perfil del usuario sin contraseña ni favoritos.
+     */
+    Optional<User> findProfileById(String id);
+
+    /**
+     * Carga el perfil del usuario sin contraseña ni favoritos.
+     */
+    Optional<User> findProfileByEmail(String email);
+
+    /**
+     * Devuelve una porción de los favoritos mediante una proyección {@code $slice}.
+     */
+    List<String> findFavorites(String userId, int offset, int limit);
+
+    /**
+     * Cuenta los favoritos de varios usuarios con una sola agregación ({@code $in} y {@code $size})
+     * sin transferir los arreglos.
+     * @return Número de favoritos por ID; los usuarios inexistentes no aparecen
+     */
+    Map<String, Integer> countFavorites(Collection<String> userIds);
+}
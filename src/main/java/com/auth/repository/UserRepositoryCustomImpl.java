@@ -0,0 +1,173 @@
+package com.auth.repository;
+
+import com.auth.model.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String CUSTOMER_ROLE = "CUSTOMER";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<User> addFavorite(String userId, String productId, boolean includeFavorites) {
+        return updateCustomer(userId, new Update().addToSet("favorites", productId), includeFavorites);
+    }
+
+    @Override
+    public Optional<User> removeFavorite(String userId, String productId, boolean includeFavorites) {
+        return updateCustomer(userId, new Update().pull("favorites", productId), includeFavorites);
+    }
+
+    @Override
+    public Optional<User> findCredentialsByEmail(String email) {
+        Query query = Query.query(Criteria.where("email").is(email));
+        // firstName y lastName son pocos bytes y AuthPayload.user los expone como obligatorios
+        query.fields().include("email", "password", "role", "firstName", "lastName");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user != null) {
+            user.setFavorites(null);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Query query = Query.query(Criteria.where("email").in(emails));
+        query.fields().include("email");
+        Set<String> existing = new HashSet<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            existing.add(user.getEmail());
+        }
+        return existing;
+    }
+
+    @Override
+    public Map<Integer, Integer> insertUnordered(List<User> users) {
+        Map<Integer, Integer> failures = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                failures.put(error.getIndex(), error.getCode());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Stream<Document> streamForExport(Collection<String> fields, String role, int batchSize) {
+        Query query = role == null ? new Query() : Query.query(Criteria.where("role").is(role));
+        // _id explícito: con solo "id" pedido la proyección quedaría vacía y Mongo devolvería el documento
+        // completo, contraseña incluida
+        query.fields().include("_id").include(fields.toArray(String[]::new));
+        query.cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class));
+    }
+
+    @Override
+    public List<User> findPage(String role, String afterId, int limit, Collection<String> fields) {
+        Query query = new Query();
+        if (role != null) {
+            query.addCriteria(Criteria.where("role").is(role));
+        }
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(new ObjectId(afterId)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        query.fields().include("id").include(fields.toArray(String[]::new));
+        List<User> users = mongoTemplate.find(query, User.class);
+        if (!fields.contains("favorites")) {
+            users.forEach(user -> user.setFavorites(null));
+        }
+        return users;
+    }
+
+    @Override
+    public Optional<User> findProfileById(String id) {
+        return findProfile(Criteria.where("id").is(id));
+    }
+
+    @Override
+    public Optional<User> findProfileByEmail(String email) {
+        return findProfile(Criteria.where("email").is(email));
+    }
+
+    @Override
+    public List<String> findFavorites(String userId, int offset, int limit) {
+        Query query = Query.query(Criteria.where("id").is(userId));
+        query.fields().include("favorites").slice("favorites", offset, limit);
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null || user.getFavorites() == null) {
+            return Collections.emptyList();
+        }
+        return user.getFavorites();
+    }
+
+    @Override
+    public Map<String, Integer> countFavorites(Collection<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("id").in(userIds)),
+                Aggregation.project()
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("favorites").then(Collections.emptyList())))
+                        .as("count"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, User.class, Document.class)) {
+            counts.put(result.get("_id").toString(), result.getInteger("count", 0));
+        }
+        return counts;
+    }
+
+    /**
+     * Aplica la actualización en un solo viaje a MongoDB y devuelve el documento resultante
+     * con solo los campos que necesita la respuesta de la mutación (nunca la contraseña).
+     */
+    private Optional<User> updateCustomer(String userId, Update update, boolean includeFavorites) {
+        Query query = Query.query(Criteria.where("id").is(userId).and("role").is(CUSTOMER_ROLE));
+        query.fields().include("email", "firstName", "lastName", "role");
+        if (includeFavorites) {
+            query.fields().include("favorites");
+        }
+        User user = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), User.class);
+        if (user != null && !includeFavorites) {
+            user.setFavorites(null);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    private Optional<User> findProfile(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().exclude("password", "favorites");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user != null) {
+            user.setFavorites(null);
+        }
+        return Optional.ofNullable(user);
+    }
+}
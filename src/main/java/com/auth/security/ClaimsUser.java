@@ -0,0 +1,30 @@
+package com.auth.security;
+
+import com.auth.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal ligero construido únicamente a partir de los claims firmados del token JWT.
+ * Solo contiene id, email y rol; no se consulta MongoDB para obtenerlo, por lo que los
+ * resolvers que necesiten el documento completo (por ejemplo {@code me}) deben cargarlo.
+ */
+public class ClaimsUser extends User {
+
+    private final List<GrantedAuthority> authorities;
+
+    public ClaimsUser(String id, String email, String role) {
+        setId(id);
+        setEmail(email);
+        setRole(role);
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
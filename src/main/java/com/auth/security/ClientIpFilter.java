@@ -0,0 +1,24 @@
+package com.auth.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Guarda la IP del cliente como atributo de la petición para que llegue al contexto GraphQL.
+ * Detrás de un proxy, la IP real se obtiene configurando {@code server.forward-headers-strategy}.
+ */
+public class ClientIpFilter extends OncePerRequestFilter {
+    public static final String CLIENT_IP_ATTRIBUTE = "clientIp";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        request.setAttribute(CLIENT_IP_ATTRIBUTE, request.getRemoteAddr());
+        filterChain.doFilter(request, response);
+    }
+}
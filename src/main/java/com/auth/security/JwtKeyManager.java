@@ -0,0 +1,191 @@
+package com.auth.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Claves asimétricas para firmar tokens (RS256 o ES256).
+ * <p>
+ * Las claves se leen del directorio {@code jwt.keys.directory}: cada clave tiene un
+ * {@code <kid>.pub.pem} (X.509) y, si puede firmar, un {@code <kid>.pem} (PKCS#8).
+ * Solo firma la clave {@code jwt.keys.active-kid}; el resto se publica en el JWKS para
+ * seguir verificando los tokens que firmó. Para rotar: publicar la clave nueva, esperar a que
+ * expire la caché del JWKS, activarla y retirar la anterior cuando expiren sus tokens.
+ * <p>
+ * Con {@code jwt.algorithm: HS256} (por defecto) no se cargan claves y se sigue usando {@code jwt.secret}.
+ */
+@Component
+public class JwtKeyManager {
+
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".pem";
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> publicKeys;
+    private final List<Map<String, Object>> jwks;
+
+    @Autowired
+    public JwtKeyManager(@Value("${jwt.algorithm:HS256}") String algorithm,
+                         @Value("${jwt.keys.directory:}") String directory,
+                         @Value("${jwt.keys.active-kid:}") String activeKid) {
+        this(SignatureAlgorithm.forName(algorithm), activeKid,
+                loadPrivateKey(algorithm, directory, activeKid), loadPublicKeys(algorithm, directory));
+    }
+
+    JwtKeyManager(SignatureAlgorithm algorithm, String activeKid, PrivateKey signingKey, Map<String, PublicKey> publicKeys) {
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.RS256
+                && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("jwt.algorithm debe ser HS256, RS256 o ES256");
+        }
+        this.algorithm = algorithm;
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.publicKeys = Collections.unmodifiableMap(new LinkedHashMap<>(publicKeys));
+        if (isAsymmetric() && (signingKey == null || !publicKeys.containsKey(activeKid))) {
+            throw new IllegalStateException("La clave activa " + activeKid + " necesita " + activeKid + PRIVATE_SUFFIX
+                    + " y " + activeKid + PUBLIC_SUFFIX);
+        }
+        List<Map<String, Object>> keys = new ArrayList<>();
+        this.publicKeys.forEach((kid, key) -> keys.add(toJwk(kid, key)));
+        this.jwks = Collections.unmodifiableList(keys);
+    }
+
+    public boolean isAsymmetric() {
+        return algorithm != SignatureAlgorithm.HS256;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    public Optional<PublicKey> getPublicKey(String kid) {
+        return Optional.ofNullable(kid).map(publicKeys::get);
+    }
+
+    /**
+     * Claves públicas en formato JWK (RFC 7517), vacío en modo HS256.
+     */
+    public List<Map<String, Object>> getJwks() {
+        return jwks;
+    }
+
+    private Map<String, Object> toJwk(String kid, PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        if (key instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else if (key instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+        }
+        return jwk;
+    }
+
+    /**
+     * Entero sin signo en big-endian; las coordenadas EC se rellenan a la longitud fija de la curva.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static PrivateKey loadPrivateKey(String algorithm, String directory, String activeKid) {
+        if (isSymmetric(algorithm)) {
+            return null;
+        }
+        Path file = keyDirectory(directory).resolve(activeKid + PRIVATE_SUFFIX);
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo leer la clave privada " + file, e);
+        }
+    }
+
+    private static Map<String, PublicKey> loadPublicKeys(String algorithm, String directory) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        if (isSymmetric(algorithm)) {
+            return keys;
+        }
+        try (Stream<Path> files = Files.list(keyDirectory(directory))) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(PUBLIC_SUFFIX)).sorted().toList()) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - PUBLIC_SUFFIX.length());
+                keys.put(kid, keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudieron leer las claves públicas de " + directory, e);
+        }
+        return keys;
+    }
+
+    private static boolean isSymmetric(String algorithm) {
+        return SignatureAlgorithm.forName(algorithm) == SignatureAlgorithm.HS256;
+    }
+
+    private static Path keyDirectory(String directory) {
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException("jwt.keys.directory es obligatorio con firma asimétrica");
+        }
+        return Path.of(directory);
+    }
+
+    private static KeyFactory keyFactory(String algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(SignatureAlgorithm.forName(algorithm).getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+}
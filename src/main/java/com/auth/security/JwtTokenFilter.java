@@ -1,5 +1,8 @@
 package com.auth.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +12,31 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class JwtTokenFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final Counter anonymous;
+    private final Counter authenticated;
+    private final Counter invalid;
+    private final Counter revoked;
 
-    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationRegistry tokenRevocationRegistry,
+                          MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.anonymous = counter(meterRegistry, "anonymous");
+        this.authenticated = counter(meterRegistry, "authenticated");
+        this.invalid = counter(meterRegistry, "invalid");
+        this.revoked = counter(meterRegistry, "revoked");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.filter.requests")
+                .description("Peticiones por resultado de la autenticación con token JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -22,9 +44,20 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String token = resolveToken(request);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Authentication auth = jwtTokenProvider.getAuthentication(token);
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (token == null) {
+            anonymous.increment();
+        } else {
+            // Un único parseo y verificación de firma por petición; la revocación se comprueba en memoria
+            Optional<Claims> claims = jwtTokenProvider.resolveClaims(token);
+            if (claims.isEmpty()) {
+                invalid.increment();
+            } else if (tokenRevocationRegistry.isRevoked(claims.get().getId())) {
+                revoked.increment();
+            } else {
+                Authentication auth = jwtTokenProvider.getAuthentication(claims.get());
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                authenticated.increment();
+            }
         }
 
         filterChain.doFilter(request, response);
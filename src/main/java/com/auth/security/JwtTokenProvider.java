@@ -2,6 +2,8 @@ package com.auth.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,6 +16,9 @@ import org.slf4j.LoggerFactory;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
@@ -26,57 +31,156 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
     private final UserDetailsService userDetailsService;
+    private final JwtKeyManager keyManager;
     private Key key;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private final Timer createTimer;
+    private final Timer validateCached;
+    private final Timer validateValid;
+    private final Timer validateInvalid;
 
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
+    public JwtTokenProvider(UserDetailsService userDetailsService, JwtKeyManager keyManager, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
+        this.keyManager = keyManager;
+        this.createTimer = Timer.builder("jwt.tokens.create")
+            .description("Emisión y firma de tokens JWT")
+            .tag("algorithm", keyManager.getAlgorithm().getValue())
+            .register(meterRegistry);
+        this.validateCached = validateTimer(meterRegistry, "cached");
+        this.validateValid = validateTimer(meterRegistry, "valid");
+        this.validateInvalid = validateTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer validateTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.tokens.validate")
+            .description("Validación de tokens JWT por resultado (cached: servido desde la caché de tokens verificados)")
+            .tag("result", result)
+            .register(meterRegistry);
     }
 
     @PostConstruct
     protected void init() {
-        logger.debug("Initializing JWT with secret: {}", jwtSecret);
-        logger.debug("JWT secret length: {}", jwtSecret.length());
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        logger.debug("JWT key initialized successfully");
+        // El parser es inmutable y seguro entre hilos: se construye una sola vez
+        if (keyManager.isAsymmetric()) {
+            this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header);
+                }
+            }).build();
+        } else {
+            this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        }
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxSize);
+        // Nunca se registra el secreto ni su longitud
+        logger.debug("Clave JWT inicializada (algoritmo {})", keyManager.getAlgorithm().getValue());
     }
 
-    public String createToken(String username, String role) {
+    public String createToken(String username, String role, String userId) {
+        return createTimer.record(() -> signToken(username, role, userId));
+    }
+
+    private String signToken(String username, String role, String userId) {
         Claims claims = Jwts.claims().setSubject(username);
         claims.put("role", role);
+        claims.put("uid", userId);
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
             .setClaims(claims)
+            // jti: identifica el token para poder revocarlo antes de su expiración
+            .setId(UUID.randomUUID().toString())
             .setIssuedAt(now)
-            .setExpiration(validity)
-            .signWith(key, SignatureAlgorithm.HS256)
-            .compact();
+            .setExpiration(validity);
+        if (keyManager.isAsymmetric()) {
+            // kid: indica a los servicios que verifican con el JWKS qué clave pública usar
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyManager.getActiveKid())
+                .signWith(keyManager.getSigningKey(), keyManager.getAlgorithm());
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS256);
+        }
+        return builder.compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Con firma asimétrica solo se aceptan tokens con el algoritmo configurado y un kid publicado.
+     */
+    private Key verificationKey(JwsHeader<?> header) {
+        if (!keyManager.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Algoritmo de firma no admitido: " + header.getAlgorithm());
+        }
+        return keyManager.getPublicKey(header.getKeyId())
+            .orElseThrow(() -> new UnsupportedJwtException("Clave de firma desconocida: " + header.getKeyId()));
+    }
+
+    /**
+     * Valida el token una única vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde una caché acotada hasta su expiración.
+     * @param token Token JWT recibido en la cabecera Authorization
+     * @return Los claims del token, o vacío si la firma o la expiración no son válidas
+     */
+    public Optional<Claims> resolveClaims(String token) {
+        long start = System.nanoTime();
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            validateCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            validateValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            validateInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return resolveClaims(token).isPresent();
+    }
+
     public Authentication getAuthentication(String token) {
-        String username = getUsername(token);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        return getAuthentication(parser.parseClaimsJws(token).getBody());
+    }
+
+    public Authentication getAuthentication(Claims claims) {
+        // En modo sin estado el principal se construye con los claims firmados, sin consultar MongoDB.
+        // Los tokens emitidos antes de incluir "uid" siguen cargando el usuario desde la base de datos.
+        String userId = claims.get("uid", String.class);
+        String role = claims.get("role", String.class);
+        if (statelessPrincipal && userId != null && role != null) {
+            UserDetails principal = new ClaimsUser(userId, claims.getSubject(), role);
+            return authentication(principal, claims);
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return authentication(userDetails, claims);
+    }
+
+    /**
+     * Los claims quedan como detalles de la autenticación (por ejemplo, para revocar el token en logout).
+     */
+    private static Authentication authentication(UserDetails principal, Claims claims) {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities());
+        authentication.setDetails(claims);
+        return authentication;
     }
 
     public String getUsername(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 }
@@ -0,0 +1,170 @@
+package com.auth.security;
+
+import com.auth.config.BoundedMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Limita los intentos de inicio de sesión por email y por IP de cliente.
+ * <ul>
+ *     <li>Cada clave cuenta sus intentos en una ventana deslizante aproximada: la ventana actual más la
+ *     parte proporcional de la anterior.</li>
+ *     <li>El intento se reserva de forma atómica al comprobarlo ({@link BoundedMap#compute}, que bloquea solo
+ *     el bucket de la clave): N intentos concurrentes no pasan todos antes de contarse. Un login correcto
+ *     reinicia el contador del email y devuelve la reserva de la IP; los que fallan por un error ajeno a las
+ *     credenciales devuelven las dos reservas.</li>
+ *     <li>El número de claves está acotado: al llenarse se descartan en bloque las que no superan su límite,
+ *     empezando por las más antiguas. Las bloqueadas nunca se descartan, de modo que llenar el mapa con emails
+ *     aleatorios no reinicia el contador de una cuenta atacada.</li>
+ * </ul>
+ * La comprobación se hace antes de verificar la contraseña, de modo que los intentos bloqueados
+ * no consumen tiempo de BCrypt.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private final int maxAttemptsPerEmail;
+    private final int maxAttemptsPerIp;
+    private final long windowMillis;
+    private final BoundedMap<String, Window> windows;
+    private final Counter blockedByEmail;
+    private final Counter blockedByIp;
+
+    public LoginAttemptThrottle(@Value("${security.login-throttle.max-attempts-per-email:5}") int maxAttemptsPerEmail,
+                                @Value("${security.login-throttle.max-attempts-per-ip:100}") int maxAttemptsPerIp,
+                                @Value("${security.login-throttle.window:900000}") long windowMillis,
+                                @Value("${security.login-throttle.max-keys:100000}") int maxKeys,
+                                MeterRegistry meterRegistry) {
+        this.maxAttemptsPerEmail = maxAttemptsPerEmail;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.windowMillis = Math.max(windowMillis, 1);
+        this.windows = new BoundedMap<>(maxKeys,
+                Comparator.comparingLong(Window::start).thenComparingInt(Window::current),
+                window -> !window.isOverLimit(System.currentTimeMillis(), this.windowMillis));
+        this.blockedByEmail = counter(meterRegistry, "email");
+        this.blockedByIp = counter(meterRegistry, "ip");
+        Gauge.builder("auth.login.throttle.keys", windows, BoundedMap::size)
+                .description("Claves (email o IP) con intentos registrados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva un intento para el email y la IP.
+     * @throws ResponseStatusException 429 si el email o la IP ya agotaron sus intentos; en ese caso no se reserva nada
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!tryAcquire(emailKey(email), maxAttemptsPerEmail)) {
+            blockedByEmail.increment();
+            throw tooManyAttempts();
+        }
+        if (clientIp != null && !tryAcquire(ipKey(clientIp), maxAttemptsPerIp)) {
+            release(emailKey(email));
+            blockedByIp.increment();
+            throw tooManyAttempts();
+        }
+    }
+
+    /**
+     * Un inicio de sesión correcto reinicia el contador del email y no cuenta para la IP.
+     */
+    public void recordSuccess(String email, String clientIp) {
+        windows.remove(emailKey(email));
+        if (clientIp != null) {
+            release(ipKey(clientIp));
+        }
+    }
+
+    /**
+     * Devuelve la reserva de un intento que terminó sin verificar las credenciales
+     * (p. ej. MongoDB no disponible o el pool de hashing saturado).
+     */
+    public void release(String email, String clientIp) {
+        release(emailKey(email));
+        if (clientIp != null) {
+            release(ipKey(clientIp));
+        }
+    }
+
+    private boolean tryAcquire(String key, int limit) {
+        if (limit <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        boolean[] acquired = new boolean[1];
+        windows.compute(key, (k, window) -> {
+            Window rolled = Window.roll(window, now, windowMillis, limit);
+            acquired[0] = rolled.estimate(now, windowMillis) < limit;
+            return acquired[0] ? rolled.increment() : rolled;
+        });
+        return acquired[0];
+    }
+
+    private void release(String key) {
+        if (windows.get(key) != null) {
+            windows.compute(key, (k, window) -> window == null ? null : window.decrement());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    private static ResponseStatusException tooManyAttempts() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Demasiados intentos de inicio de sesión. Intente nuevamente más tarde.");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Intentos de inicio de sesión rechazados por exceso de fallos")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Intentos de la ventana fija actual (alineada a múltiplos de la duración) y de la anterior.
+     */
+    private record Window(long start, int previous, int current, int limit) {
+
+        static Window roll(Window window, long now, long windowMillis, int limit) {
+            long currentStart = now - now % windowMillis;
+            if (window == null || window.start < currentStart - windowMillis) {
+                return new Window(currentStart, 0, 0, limit);
+            }
+            if (window.start < currentStart) {
+                return new Window(currentStart, window.current, 0, limit);
+            }
+            return window;
+        }
+
+        Window increment() {
+            return new Window(start, previous, current + 1, limit);
+        }
+
+        Window decrement() {
+            return new Window(start, previous, Math.max(current - 1, 0), limit);
+        }
+
+        double estimate(long now, long windowMillis) {
+            Window rolled = roll(this, now, windowMillis, limit);
+            double previousWeight = 1.0 - (double) (now - rolled.start) / windowMillis;
+            return rolled.current + rolled.previous * previousWeight;
+        }
+
+        boolean isOverLimit(long now, long windowMillis) {
+            return estimate(now, windowMillis) >= limit;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.auth.security;
 
 import com.auth.model.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -26,6 +27,7 @@ public class RoleAuthorizationHandler extends DataFetcherExceptionResolverAdapte
 
     /**
      * Verifica si el usuario actual está autenticado.
+     * En modo sin estado el principal es un {@link ClaimsUser} con id, email y rol únicamente.
      * @return El usuario autenticado
      * @throws ResponseStatusException con código 401 si el usuario no está autenticado
      */
@@ -106,6 +108,19 @@ public class RoleAuthorizationHandler extends DataFetcherExceptionResolverAdapte
         return user;
     }
 
+    /**
+     * Devuelve los claims del token con el que se autenticó la petición actual.
+     * @throws ResponseStatusException con código 401 si la petición no trae un token válido
+     */
+    public static Claims getCurrentClaims() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof Claims claims)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                "No autenticado. Por favor, inicie sesión para continuar.");
+        }
+        return claims;
+    }
+
     /**
      * Convierte excepciones de autorización en errores GraphQL.
      */
@@ -1,6 +1,8 @@
 package com.auth.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,6 +20,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -27,14 +31,29 @@ public class SecurityConfig {
             .and()
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/graphql").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                // Sondas de Kubernetes y del balanceador (sin token); responden desde el último resultado en caché
+                .requestMatchers("/health", "/actuator/health", "/actuator/health/**").permitAll()
+                // Scraping de Prometheus sin token: Actuator solo escucha en management.server.port,
+                // que no se publica fuera de la red interna
+                .requestMatchers("/actuator/prometheus").permitAll()
+                // Permite que los errores de los endpoints REST (p. ej. 400) lleguen al cliente
+                .requestMatchers("/error").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(new JwtTokenFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new ClientIpFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new JwtTokenFilter(jwtTokenProvider, tokenRevocationRegistry, meterRegistry), UsernamePasswordAuthenticationFilter.class)
             .build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.pool-size:0}") int poolSize,
+            @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${security.password-hashing.max-wait:2000}") long maxWaitMillis,
+            MeterRegistry meterRegistry) {
+        // BCrypt se ejecuta en un pool propio para no bloquear los hilos del servidor durante picos de login
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, maxWaitMillis,
+                meterRegistry);
     }
 }
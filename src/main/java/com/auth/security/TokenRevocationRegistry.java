@@ -0,0 +1,111 @@
+package com.auth.security;
+
+import com.auth.model.RevokedToken;
+import com.auth.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de los tokens de acceso revocados (por jti).
+ * <ul>
+ *     <li>La consulta por petición no accede a MongoDB: un filtro de Bloom descarta casi todos los
+ *     tokens no revocados y el mapa exacto confirma los posibles positivos.</li>
+ *     <li>Las revocaciones se guardan en la colección revoked_tokens; cada instancia la consulta
+ *     periódicamente para conocer las revocaciones hechas en las demás.</li>
+ *     <li>Las entradas se descartan cuando el token habría expirado y el filtro se reconstruye.</li>
+ * </ul>
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long pollOverlapMillis;
+    // jti -> expiración del token en milisegundos
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastPoll;
+
+    public TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository,
+                                   @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                   @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${jwt.revocation.poll-overlap:30000}") long pollOverlapMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pollOverlapMillis = pollOverlapMillis;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoca el token en esta instancia de inmediato y lo publica para las demás.
+     * @param expiresAt Expiración del token; a partir de ese momento la revocación deja de ser necesaria
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(jti);
+        revokedToken.setExpiresAt(expiresAt);
+        revokedToken.setRevokedAt(Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        remember(jti, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Lee las revocaciones nuevas de todas las instancias. La primera ejecución carga todas las vigentes.
+     * La ventana se solapa con la consulta anterior para tolerar diferencias de reloj entre instancias.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5000}")
+    public void poll() {
+        Instant now = Instant.now();
+        Instant since = lastPoll == null ? Instant.EPOCH : lastPoll.minusMillis(pollOverlapMillis);
+        try {
+            for (RevokedToken revokedToken : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now)) {
+                remember(revokedToken.getJti(), revokedToken.getExpiresAt().toEpochMilli());
+            }
+            lastPoll = now;
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudieron leer las revocaciones de tokens: {}", ex.getMessage());
+        }
+        pruneExpired();
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Las escrituras son poco frecuentes y se serializan para que una reconstrucción del filtro
+     * no pierda una revocación concurrente; las lecturas no toman el lock.
+     */
+    private synchronized void remember(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloomFilter.add(jti);
+    }
+
+    private synchronized void pruneExpired() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+        }
+    }
+}
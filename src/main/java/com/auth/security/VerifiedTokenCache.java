@@ -0,0 +1,68 @@
+package com.auth.security;
+
+import com.auth.config.BoundedMap;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * Caché acotada en memoria de tokens ya verificados.
+ * La clave es el SHA-256 del token (nunca se guarda el token en claro) y cada entrada
+ * deja de ser válida, como muy tarde, en el instante {@code exp} del token. Al llenarse se descartan
+ * primero los tokens que expiran antes.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final BoundedMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new BoundedMap<>(maxSize, Comparator.comparingLong(Entry::expiresAt));
+    }
+
+    Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        entries.put(digest(token), new Entry(claims, expiration.getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -1,130 +1,271 @@
 package com.auth.service;
 
+import com.auth.config.RateLimitedLogger;
+import com.auth.model.RefreshToken;
 import com.auth.model.User;
 import com.auth.repository.UserRepository;
 import com.auth.model.dto.AuthPayload;
 import com.auth.model.dto.LoginInput;
 import com.auth.model.dto.RegisterInput;
+import com.auth.model.dto.TokenPayload;
+import com.auth.security.ClaimsUser;
 import com.auth.security.JwtTokenProvider;
+import com.auth.security.LoginAttemptThrottle;
+import com.auth.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    // Los fallos de MongoDB afectan a todas las peticiones a la vez: basta con unos pocos mensajes por intervalo
+    private static final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 5, 10000);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final ProductService productService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final MeterRegistry meterRegistry;
 
     public AuthPayload register(RegisterInput input, String role) {
-        System.out.println("Registering user: " + input + " with role: " + role);
-        if (userRepository.findByEmail(input.getEmail()).isPresent()) {
+        return timed("register", () -> doRegister(input, role));
+    }
+
+    private AuthPayload doRegister(RegisterInput input, String role) {
+        logger.debug("Registrando usuario {} con rol {}", input.getEmail(), role);
+        if (phase("register", "mongo", () -> userRepository.findByEmail(input.getEmail())).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
         
-        // Validar que la contraseña sea segura (al menos 8 caracteres, con números y letras)
-        if (input.getPassword().length() < 8 || !input.getPassword().matches(".*[0-9].*") || !input.getPassword().matches(".*[a-zA-Z].*")) {
+        if (!isSecurePassword(input.getPassword())) {
             throw new RuntimeException("Password must be at least 8 characters long and contain both letters and numbers");
         }
 
         User user = new User();
         user.setEmail(input.getEmail());
-        user.setPassword(passwordEncoder.encode(input.getPassword()));
+        user.setPassword(phase("register", "bcrypt", () -> passwordEncoder.encode(input.getPassword())));
         user.setFirstName(input.getFirstName());
         user.setLastName(input.getLastName());
         user.setRole(role);
 
-        user = userRepository.save(user);
-        String token = jwtTokenProvider.createToken(user.getEmail(), user.getRole());
+        User saved;
+        try {
+            saved = phase("register", "mongo", () -> userRepository.save(user));
+        } catch (DuplicateKeyException ex) {
+            // El índice único sobre email cubre registros concurrentes con el mismo email
+            throw new RuntimeException("Email already exists");
+        }
+        return authPayload(saved);
+    }
 
-        AuthPayload authPayload = new AuthPayload();
-        authPayload.setToken(token);
-        authPayload.setUser(user);
-        return authPayload;
+    /**
+     * Valida que la contraseña sea segura (al menos 8 caracteres, con números y letras).
+     */
+    static boolean isSecurePassword(String password) {
+        return password != null && password.length() >= 8
+            && password.matches(".*[0-9].*") && password.matches(".*[a-zA-Z].*");
+    }
+
+    /**
+     * @param clientIp IP del cliente para limitar intentos fallidos, o null si no se conoce
+     */
+    public AuthPayload login(LoginInput input, String clientIp) {
+        return timed("login", () -> doLogin(input, clientIp));
     }
 
-    public AuthPayload login(LoginInput input) {
-        User user = userRepository.findByEmail(input.getEmail())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    private AuthPayload doLogin(LoginInput input, String clientIp) {
+        // Reserva el intento antes de consultar MongoDB y de ejecutar BCrypt; rechaza si hay demasiados recientes
+        loginAttemptThrottle.checkAllowed(input.getEmail(), clientIp);
 
-        if (!passwordEncoder.matches(input.getPassword(), user.getPassword())) {
+        Optional<User> credentials;
+        boolean matches;
+        try {
+            // Proyección mínima: el arreglo de favoritos no se lee para verificar la contraseña
+            Optional<User> found = phase("login", "mongo", () -> userRepository.findCredentialsByEmail(input.getEmail()));
+            matches = found.isPresent() && phase("login", "bcrypt",
+                () -> passwordEncoder.matches(input.getPassword(), found.get().getPassword()));
+            credentials = found;
+        } catch (RuntimeException ex) {
+            // Sin verificar las credenciales (MongoDB caído, pool de hashing saturado) el intento no cuenta
+            loginAttemptThrottle.release(input.getEmail(), clientIp);
+            throw ex;
+        }
+
+        User user = credentials.orElseThrow(() -> new RuntimeException("User not found"));
+        if (!matches) {
             throw new RuntimeException("Invalid password");
         }
+        loginAttemptThrottle.recordSuccess(input.getEmail(), clientIp);
+
+        return authPayload(user);
+    }
+
+    /**
+     * Renueva la sesión con un refresh token sin verificar la contraseña. El refresh token usado queda
+     * invalidado y se entrega uno nuevo con la misma expiración (rotación sin alargar la sesión).
+     * El email y el rol se leen del usuario actual, no del refresh token: un cambio de rol se aplica en
+     * la siguiente renovación y un usuario eliminado ya no puede renovar.
+     */
+    public TokenPayload refreshToken(String refreshToken) {
+        RefreshToken used = refreshTokenService.consume(refreshToken)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido o expirado"));
+        User user = userRepository.findProfileById(used.getUserId())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido o expirado"));
+
+        String token = jwtTokenProvider.createToken(user.getEmail(), user.getRole(), user.getId());
+        String nextRefreshToken = refreshTokenService.issue(user.getId(), user.getEmail(), user.getRole(),
+            used.getExpiresAt());
+        return new TokenPayload(token, nextRefreshToken);
+    }
+
+    /**
+     * Cierra la sesión: revoca el token de acceso actual e invalida el refresh token indicado. Sin refresh
+     * token no se sabe qué sesión cerrar, así que se invalidan todos los del usuario; si no, el refresh token
+     * seguiría emitiendo tokens de acceso después del logout.
+     * @return false si el token no tiene jti (emitido antes de admitir revocación) y solo expirará
+     */
+    public boolean logout(Claims claims, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.consume(refreshToken);
+        } else {
+            // Los tokens emitidos antes de incluir "uid" se resuelven por email
+            Optional.ofNullable(claims.get("uid", String.class))
+                .or(() -> userRepository.findCredentialsByEmail(claims.getSubject()).map(User::getId))
+                .ifPresent(refreshTokenService::revokeAll);
+        }
+        return revoke(claims);
+    }
+
+    /**
+     * Revoca un token de acceso cualquiera (uso administrativo).
+     */
+    public boolean revokeToken(String token) {
+        Claims claims = jwtTokenProvider.resolveClaims(token)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token inválido o expirado"));
+        return revoke(claims);
+    }
+
+    private boolean revoke(Claims claims) {
+        if (claims.getId() == null) {
+            return false;
+        }
+        tokenRevocationRegistry.revoke(claims.getId(), claims.getExpiration().toInstant());
+        return true;
+    }
 
-        String token = jwtTokenProvider.createToken(user.getEmail(), user.getRole());
+    /**
+     * Mide la operación completa en {@code auth.requests}, etiquetada por resultado.
+     */
+    private <T> T timed(String operation, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.requests", "operation", operation, "outcome", outcome));
+        }
+    }
 
+    /**
+     * Mide una fase de la operación en {@code auth.requests.phase} (p. ej. BCrypt frente a MongoDB).
+     */
+    private <T> T phase(String operation, String phase, Supplier<T> step) {
+        return meterRegistry.timer("auth.requests.phase", "operation", operation, "phase", phase).record(step);
+    }
+
+    private AuthPayload authPayload(User user) {
         AuthPayload authPayload = new AuthPayload();
-        authPayload.setToken(token);
+        authPayload.setToken(jwtTokenProvider.createToken(user.getEmail(), user.getRole(), user.getId()));
+        authPayload.setRefreshToken(refreshTokenService.issue(user.getId(), user.getEmail(), user.getRole()));
         authPayload.setUser(user);
         return authPayload;
     }
 
-    public User addToFavorites(String userId, String productId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        // Validar que el usuario tenga rol de CUSTOMER
-        if (!"CUSTOMER".equals(user.getRole())) {
-            throw new RuntimeException("Solo los clientes pueden modificar su lista de favoritos");
+    /**
+     * Devuelve el perfil del usuario autenticado, sin el arreglo de favoritos.
+     * Si el principal se construyó solo con los claims del token, se carga desde MongoDB.
+     */
+    public User getProfile(User principal) {
+        if (principal instanceof ClaimsUser) {
+            return userRepository.findProfileById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         }
-        
+        return principal;
+    }
+
+    /**
+     * Agrega un producto a favoritos sin ocupar un hilo mientras se consulta el servicio de productos.
+     * La escritura en MongoDB (bloqueante) se ejecuta en el scheduler elástico de Reactor.
+     * @param includeFavorites true si la respuesta debe traer el arreglo de favoritos
+     */
+    public Mono<User> addToFavorites(String userId, String productId, boolean includeFavorites) {
+        // Intentar validar que el producto exista utilizando el circuit breaker
+        return productService.productExistsAsync(productId)
+            .doOnNext(exists -> {
+                if (!exists) {
+                    logger.debug("El producto {} no se encontró, pero se agregará a favoritos de todas formas", productId);
+                }
+            })
+            .publishOn(Schedulers.boundedElastic())
+            .map(exists -> saveFavorite(userId, productId, includeFavorites));
+    }
+
+    private User saveFavorite(String userId, String productId, boolean includeFavorites) {
+        // $addToSet atómico filtrado por rol: evita duplicados y actualizaciones perdidas sin leer el documento
+        Optional<User> updated;
         try {
-            // Intentar validar que el producto exista utilizando el circuit breaker
-            boolean exists = productService.productExists(productId);
-            if (!exists) {
-                System.out.println("Advertencia: El producto " + productId + " no se encontró, pero se agregará a favoritos de todas formas.");
-            }
-        } catch (Exception ex) {
-            // Registrar el error pero continuar con la operación
-            System.err.println("Error al verificar existencia del producto: " + ex.getMessage());
-            // Registramos que el circuito podría estar abierto
-            System.err.println("La operación continuará, pero se recomienda verificar la disponibilidad del servicio de productos");
-        }
-        
-        // Verificar duplicados antes de agregar
-        if (!user.getFavorites().contains(productId)) {
-            // Evitamos modificar directamente la lista por si es inmutable o nula
-            if (user.getFavorites() == null) {
-                user.setFavorites(new java.util.ArrayList<>());
-            }
-            user.getFavorites().add(productId);
-            
-            try {
-                return userRepository.save(user);
-            } catch (Exception ex) {
-                System.err.println("Error al guardar usuario con favorito: " + ex.getMessage());
-                throw new RuntimeException("No se pudo guardar el producto en favoritos. Intente nuevamente más tarde.");
-            }
+            updated = userRepository.addFavorite(userId, productId, includeFavorites);
+        } catch (DataAccessException ex) {
+            rateLimitedLogger.warn("addFavorite", "Error al guardar usuario con favorito: {}", ex.getMessage());
+            throw new RuntimeException("No se pudo guardar el producto en favoritos. Intente nuevamente más tarde.");
         }
-        return user;
+        return updated.orElseThrow(() -> favoritesUpdateRejected(userId));
     }
 
-    public User removeFromFavorites(String userId, String productId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        // Validar que el usuario tenga rol de CUSTOMER
-        if (!"CUSTOMER".equals(user.getRole())) {
-            throw new RuntimeException("Solo los clientes pueden modificar su lista de favoritos");
-        }
-        
-        if (user.getFavorites() == null) {
-            return user; // Si la lista es nula, no hay nada que eliminar
+    /**
+     * @param includeFavorites true si la respuesta debe traer el arreglo de favoritos
+     */
+    public User removeFromFavorites(String userId, String productId, boolean includeFavorites) {
+        // $pull atómico filtrado por rol: si el producto no estaba en favoritos el documento no cambia
+        Optional<User> updated;
+        try {
+            updated = userRepository.removeFavorite(userId, productId, includeFavorites);
+        } catch (DataAccessException ex) {
+            rateLimitedLogger.warn("removeFavorite", "Error al guardar usuario después de eliminar favorito: {}", ex.getMessage());
+            throw new RuntimeException("No se pudo eliminar el producto de favoritos. Intente nuevamente más tarde.");
         }
-        
-        // Eliminar el producto de la lista de favoritos
-        boolean removed = user.getFavorites().remove(productId);
-        
-        if (removed) {
-            try {
-                return userRepository.save(user);
-            } catch (Exception ex) {
-                System.err.println("Error al guardar usuario después de eliminar favorito: " + ex.getMessage());
-                throw new RuntimeException("No se pudo eliminar el producto de favoritos. Intente nuevamente más tarde.");
-            }
+        return updated.orElseThrow(() -> favoritesUpdateRejected(userId));
+    }
+
+    /**
+     * La actualización no encontró un cliente con ese ID; solo en este caso se consulta
+     * si el usuario existe para devolver el mensaje adecuado.
+     */
+    private RuntimeException favoritesUpdateRejected(String userId) {
+        if (!userRepository.existsById(userId)) {
+            return new RuntimeException("Usuario no encontrado");
         }
-        return user; // Si no se eliminó nada, devolver el usuario sin cambios
+        return new RuntimeException("Solo los clientes pueden modificar su lista de favoritos");
     }
 }
@@ -0,0 +1,114 @@
+package com.auth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Comprueba MongoDB y el servicio de productos en segundo plano y guarda el último resultado,
+ * de modo que las sondas de salud responden sin hacer llamadas externas.
+ * Las comprobaciones usan un hilo propio: si una dependencia se bloquea no retrasa otras tareas
+ * programadas, y el resultado se marca como obsoleto cuando supera el umbral configurado.
+ */
+@Service
+public class DependencyHealthService implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyHealthService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductService productService;
+    private final long intervalMillis;
+    private final long staleAfterMillis;
+    private final LongSupplier clock;
+    private ScheduledExecutorService scheduler;
+    private volatile Snapshot snapshot = new Snapshot(false, false, 0);
+
+    @Autowired
+    public DependencyHealthService(MongoTemplate mongoTemplate, ProductService productService,
+                                   @Value("${health.check.interval:10000}") long intervalMillis,
+                                   @Value("${health.check.stale-after:30000}") long staleAfterMillis) {
+        this(mongoTemplate, productService, intervalMillis, staleAfterMillis, System::currentTimeMillis);
+    }
+
+    DependencyHealthService(MongoTemplate mongoTemplate, ProductService productService,
+                            long intervalMillis, long staleAfterMillis, LongSupplier clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.productService = productService;
+        this.intervalMillis = intervalMillis;
+        this.staleAfterMillis = staleAfterMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("health-check").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Ejecuta las comprobaciones y reemplaza el resultado guardado.
+     */
+    void refresh() {
+        try {
+            boolean database = checkMongoConnection();
+            // No marcamos como no saludable si falla el servicio de productos, ya que usamos circuit breaker
+            boolean productsService = productService.isServiceAvailable();
+            snapshot = new Snapshot(database, productsService, clock.getAsLong());
+        } catch (RuntimeException ex) {
+            // Una excepción cancelaría las ejecuciones siguientes de la tarea programada
+            logger.warn("Error al comprobar el estado de las dependencias: {}", ex.getMessage());
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return Milisegundos desde la última comprobación completada
+     */
+    public long getAgeMillis(Snapshot snapshot) {
+        return clock.getAsLong() - snapshot.checkedAt();
+    }
+
+    /**
+     * Un resultado obsoleto (o la ausencia de comprobaciones) no permite afirmar que el servicio esté sano.
+     */
+    public boolean isStale(Snapshot snapshot) {
+        return snapshot.checkedAt() == 0 || getAgeMillis(snapshot) > staleAfterMillis;
+    }
+
+    private boolean checkMongoConnection() {
+        try {
+            // Intenta ejecutar un ping a la base de datos
+            mongoTemplate.executeCommand("{ ping: 1 }");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param checkedAt Momento de la comprobación en milisegundos (0 si aún no se ha completado ninguna)
+     */
+    public record Snapshot(boolean databaseConnected, boolean productsServiceConnected, long checkedAt) {
+    }
+}
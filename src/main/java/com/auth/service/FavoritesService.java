@@ -0,0 +1,103 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.model.dto.Edge;
+import com.auth.model.dto.PageInfo;
+import com.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectura de la lista de favoritos. Si el usuario ya trae el arreglo cargado se usa tal cual;
+ * si no, se consulta a MongoDB solo la porción o el conteo que pide la consulta GraphQL.
+ */
+@Service
+@RequiredArgsConstructor
+public class FavoritesService {
+    private static final String CURSOR_PREFIX = "favorite:";
+
+    private final UserRepository userRepository;
+
+    @Value("${favorites.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    public List<String> getFavorites(User user) {
+        if (user.getFavorites() != null) {
+            return user.getFavorites();
+        }
+        return userRepository.findFavorites(user.getId(), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cuenta los favoritos de varios usuarios en una sola consulta (DataLoader de favoritesCount).
+     * @return Número de favoritos por ID de usuario; los usuarios que no existen cuentan 0
+     */
+    public Map<String, Integer> countFavorites(Collection<String> userIds) {
+        Map<String, Integer> counts = new HashMap<>(userRepository.countFavorites(userIds));
+        userIds.forEach(userId -> counts.putIfAbsent(userId, 0));
+        return counts;
+    }
+
+    /**
+     * Devuelve una página de favoritos a partir del cursor indicado.
+     * Se pide un elemento extra para saber si existe una página siguiente.
+     * @param first Número de favoritos por página (entre 1 y el máximo configurado)
+     * @param after Cursor del último favorito de la página anterior, o null para empezar desde el inicio
+     */
+    public Connection<String> getFavoritesPage(User user, int first, String after) {
+        if (first < 1 || first > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El argumento first debe estar entre 1 y " + maxPageSize);
+        }
+        int offset = after == null ? 0 : decodeCursor(after) + 1;
+
+        List<String> slice;
+        if (user.getFavorites() != null) {
+            List<String> favorites = user.getFavorites();
+            int from = Math.min(offset, favorites.size());
+            slice = favorites.subList(from, Math.min(from + first + 1, favorites.size()));
+        } else {
+            slice = userRepository.findFavorites(user.getId(), offset, first + 1);
+        }
+
+        boolean hasNextPage = slice.size() > first;
+        List<Edge<String>> edges = new ArrayList<>();
+        for (int i = 0; i < Math.min(first, slice.size()); i++) {
+            edges.add(new Edge<>(encodeCursor(offset + i), slice.get(i)));
+        }
+        String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+        return new Connection<>(edges, new PageInfo(hasNextPage, endCursor));
+    }
+
+    private static String encodeCursor(int index) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                int index = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+                if (index >= 0) {
+                    return index;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // Cursor mal formado: se informa abajo como error de entrada
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de favoritos inválido");
+    }
+}
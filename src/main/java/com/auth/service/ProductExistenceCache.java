@@ -0,0 +1,105 @@
+package com.auth.service;
+
+import com.auth.config.BoundedMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Caché acotada en memoria de la existencia de productos.
+ * <ul>
+ *     <li>Los resultados positivos y negativos tienen TTL distintos.</li>
+ *     <li>Las consultas concurrentes del mismo ID comparten una única llamada al servicio de productos.</li>
+ *     <li>Con el circuito abierto, o si la llamada falla, se sirve la última respuesta conocida aunque haya expirado.</li>
+ *     <li>Al llenarse se descartan primero las entradas que expiran antes, de modo que los negativos
+ *     (TTL corto) salen antes que los positivos recientes.</li>
+ * </ul>
+ */
+@Component
+public class ProductExistenceCache {
+
+    private final long positiveTtlMillis;
+    private final long negativeTtlMillis;
+    private final BoundedMap<String, Entry> entries;
+    private final ConcurrentHashMap<String, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+
+    public ProductExistenceCache(@Value("${products.service.cache.max-size:10000}") int maxSize,
+                                 @Value("${products.service.cache.positive-ttl:300000}") long positiveTtlMillis,
+                                 @Value("${products.service.cache.negative-ttl:30000}") long negativeTtlMillis,
+                                 MeterRegistry meterRegistry) {
+        this.positiveTtlMillis = positiveTtlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.entries = new BoundedMap<>(maxSize, Comparator.comparingLong(Entry::expiresAt));
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.stale = counter(meterRegistry, "stale");
+        Gauge.builder("products.cache.size", entries, BoundedMap::size)
+                .description("Productos con existencia en caché")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la existencia del producto desde la caché o, si no está vigente, mediante el loader.
+     * @param productId ID del producto
+     * @param loader Consulta al servicio de productos; debe propagar los errores para poder servir datos antiguos
+     * @param circuitOpen true si el circuit breaker del servicio de productos está abierto
+     */
+    public Mono<Boolean> get(String productId, Function<String, Mono<Boolean>> loader, boolean circuitOpen) {
+        Entry entry = entries.get(productId);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return Mono.just(entry.exists());
+        }
+        if (entry != null && circuitOpen) {
+            stale.increment();
+            return Mono.just(entry.exists());
+        }
+        misses.increment();
+        return inFlight.computeIfAbsent(productId, id -> load(id, loader));
+    }
+
+    private Mono<Boolean> load(String productId, Function<String, Mono<Boolean>> loader) {
+        AtomicReference<Mono<Boolean>> self = new AtomicReference<>();
+        Mono<Boolean> shared = loader.apply(productId)
+                .doOnNext(exists -> put(productId, exists))
+                .onErrorResume(ex -> {
+                    Entry previous = entries.get(productId);
+                    if (previous == null) {
+                        return Mono.error(ex);
+                    }
+                    stale.increment();
+                    return Mono.just(previous.exists());
+                })
+                // Antes de entregar el resultado: quien consulte justo después no debe reutilizar un error ya emitido
+                .doOnTerminate(() -> inFlight.remove(productId, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    private void put(String productId, boolean exists) {
+        long ttl = exists ? positiveTtlMillis : negativeTtlMillis;
+        entries.put(productId, new Entry(exists, System.currentTimeMillis() + ttl));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("products.cache.requests")
+                .description("Consultas de existencia de productos por resultado de caché")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(boolean exists, long expiresAt) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.auth.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Agrupa las consultas concurrentes de productos en lotes.
+ * Un lote se envía cuando pasa la ventana configurada o cuando alcanza el tamaño máximo,
+ * y el resultado de cada producto se reparte a quienes lo pidieron.
+ */
+class ProductRequestBatcher {
+
+    private final Function<List<String>, Mono<Map<String, JsonNode>>> batchFetcher;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Sinks.One<Optional<JsonNode>>> pending = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    /**
+     * @param batchFetcher Consulta un lote de IDs y devuelve los productos encontrados indexados por ID
+     * @param windowMillis Tiempo máximo que una consulta espera a que se complete su lote
+     * @param maxBatchSize Número máximo de productos por lote
+     */
+    ProductRequestBatcher(Function<List<String>, Mono<Map<String, JsonNode>>> batchFetcher,
+                          long windowMillis, int maxBatchSize) {
+        this.batchFetcher = batchFetcher;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+    }
+
+    /**
+     * @return El producto si existe, vacío si el servicio de productos no lo encontró
+     */
+    Mono<Optional<JsonNode>> load(String productId) {
+        return Mono.defer(() -> {
+            Sinks.One<Optional<JsonNode>> sink;
+            Map<String, Sinks.One<Optional<JsonNode>>> full = null;
+            lock.lock();
+            try {
+                sink = pending.computeIfAbsent(productId, id -> Sinks.one());
+                if (pending.size() >= maxBatchSize || windowMillis <= 0) {
+                    if (scheduledFlush != null) {
+                        scheduledFlush.dispose();
+                        scheduledFlush = null;
+                    }
+                    full = takePending();
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = Schedulers.parallel().schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return sink.asMono();
+        });
+    }
+
+    private void flush() {
+        Map<String, Sinks.One<Optional<JsonNode>>> batch;
+        lock.lock();
+        try {
+            scheduledFlush = null;
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Debe llamarse con el lock adquirido.
+     */
+    private Map<String, Sinks.One<Optional<JsonNode>>> takePending() {
+        Map<String, Sinks.One<Optional<JsonNode>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, Sinks.One<Optional<JsonNode>>> batch) {
+        batchFetcher.apply(new ArrayList<>(batch.keySet())).subscribe(
+                products -> batch.forEach((id, sink) -> sink.tryEmitValue(Optional.ofNullable(products.get(id)))),
+                error -> batch.values().forEach(sink -> sink.tryEmitError(error)),
+                // Si la respuesta llega vacía, ningún llamador debe quedarse esperando
+                () -> batch.values().forEach(sink -> sink.tryEmitValue(Optional.empty())));
+    }
+}
@@ -1,35 +1,76 @@
 package com.auth.service;
 
+import com.auth.config.RateLimitedLogger;
+import com.auth.model.dto.FavoriteProduct;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import java.util.function.Supplier;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    // Con el servicio de productos caído cada petición fallaría: se limitan los avisos por punto de llamada
+    private static final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 5, 10000);
+
     private final WebClient webClient;
     private final CircuitBreaker circuitBreaker;
-    
+    private final ProductExistenceCache existenceCache;
+    private final ProductRequestBatcher batcher;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private final int batchMaxSize;
+
+    @Value("${products.service.timeout:5000}")
+    private long timeoutMillis = 5000;
+
+    @Value("${products.service.retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${products.service.retry.delay:1000}")
+    private long retryDelayMillis = 1000;
+
     public ProductService(WebClient.Builder webClientBuilder, 
                          @Value("${products.service.url}") String productsServiceUrl,
-                         CircuitBreaker productServiceCircuitBreaker) {
+                         CircuitBreaker productServiceCircuitBreaker,
+                         ProductExistenceCache existenceCache,
+                         @Value("${products.service.batch.window:5}") long batchWindowMillis,
+                         @Value("${products.service.batch.max-size:50}") int batchMaxSize,
+                         MeterRegistry meterRegistry) {
         this.webClient = webClientBuilder
                 .baseUrl(productsServiceUrl)
                 .build();
         this.circuitBreaker = productServiceCircuitBreaker;
+        this.existenceCache = existenceCache;
+        this.batcher = new ProductRequestBatcher(this::fetchProducts, batchWindowMillis, batchMaxSize);
+        this.batchMaxSize = Math.max(batchMaxSize, 1);
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("products.requests.retries")
+                .description("Reintentos de peticiones al servicio de productos")
+                .register(meterRegistry);
     }
     
-    /**
-     * Verifica si un producto existe en el microservicio de productos
-     * @param productId ID del producto a verificar
-     * @return true si el producto existe, false en caso contrario
-     */
     /**
      * Verifica si el servicio de productos está disponible
      * @return true si el servicio está disponible, false en caso contrario
@@ -50,74 +91,179 @@ public class ProductService {
             
             return response != null && response.contains("__typename");
         } catch (Exception ex) {
-            System.err.println("Servicio de productos no disponible: " + ex.getMessage());
+            rateLimitedLogger.warn("health", "Servicio de productos no disponible: {}", ex.getMessage());
             return false;
         }
     }
-    
+
+    /**
+     * Verifica si un producto existe en el microservicio de productos (versión bloqueante).
+     * @param productId ID del producto a verificar
+     * @return true si el producto existe, false en caso contrario
+     */
     public boolean productExists(String productId) {
-        // Usamos Circuit Breaker para proteger la llamada al servicio de productos
-        Supplier<Boolean> productExistsSupplier = () -> {
-            try {
-                // Llamada GraphQL para verificar si el producto existe con timeout y reintentos
-                String graphqlQuery = "{\"query\": \"query { product(id: \\\"" + productId + "\\\") { id name price } }\"}";
-                
-                // Intentar con reintentos (máximo 3) con intervalo entre intentos
-                int maxRetries = 3;
-                int currentRetry = 0;
-                
-                while (currentRetry < maxRetries) {
-                    try {
-                        String response = webClient.post()
-                                .uri("/graphql")
-                                .header("Content-Type", "application/json")
-                                .bodyValue(graphqlQuery)
-                                .retrieve()
-                                .bodyToMono(String.class)
-                                .timeout(java.time.Duration.ofSeconds(5)) // Timeout de 5 segundos
-                                .block();
-                        
-                        // Si obtenemos una respuesta y no contiene errores, el producto existe
-                        return response != null && !response.contains("errors") && response.contains(productId);
-                    } catch (Exception e) {
-                        currentRetry++;
-                        if (currentRetry >= maxRetries) {
-                            throw e; // Re-lanzar la excepción si hemos agotado los intentos
-                        }
-                        System.out.println("Intento " + currentRetry + " fallido. Reintentando en 1 segundo...");
-                        try {
-                            Thread.sleep(1000); // Esperar 1 segundo antes de reintentar
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt(); // Restaurar el estado de interrupción
-                            throw new RuntimeException("Thread fue interrumpido durante el reintento", ie);
+        return Boolean.TRUE.equals(productExistsAsync(productId).block());
+    }
+
+    /**
+     * Verifica si un producto existe sin bloquear el hilo que realiza la llamada.
+     * Las respuestas se sirven desde {@link ProductExistenceCache}; con el circuito abierto
+     * se usa la última respuesta conocida del producto si existe.
+     * @param productId ID del producto a verificar
+     * @return true si el producto existe; false si no existe o el servicio no está disponible
+     */
+    public Mono<Boolean> productExistsAsync(String productId) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            boolean circuitOpen = circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+            return existenceCache.get(productId, this::fetchProductExists, circuitOpen)
+                    .doOnNext(exists -> sample.stop(existsTimer(exists ? "exists" : "missing")))
+                    .onErrorResume(ex -> {
+                        sample.stop(existsTimer("error"));
+                        // Si el circuito está abierto o hay un error, proporcionamos un valor por defecto
+                        rateLimitedLogger.warn("exists", "Circuit breaker activo o error al verificar producto {} (estado: {}): {}",
+                                productId, circuitBreaker.getState(), ex.getMessage());
+                        return Mono.just(false);
+                    });
+        });
+    }
+
+    private Timer existsTimer(String result) {
+        return meterRegistry.timer("products.exists", "result", result);
+    }
+
+    /**
+     * Obtiene los datos de varios productos en peticiones de como mucho {@code products.service.batch.max-size}
+     * IDs al servicio de productos, protegidas por el mismo circuit breaker y reintentos que la verificación de
+     * existencia. Si una petición falla sus productos se omiten en lugar de propagar el error.
+     * @return Los productos encontrados indexados por ID; los inexistentes no aparecen
+     */
+    public Mono<Map<String, FavoriteProduct>> findProducts(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Flux.fromIterable(productIds)
+                .buffer(batchMaxSize)
+                .flatMap(this::findProductsChunk)
+                .reduceWith(HashMap<String, FavoriteProduct>::new, (result, products) -> {
+                    result.putAll(products);
+                    return result;
+                })
+                .map(Map::copyOf);
+    }
+
+    private Mono<Map<String, FavoriteProduct>> findProductsChunk(List<String> productIds) {
+        return fetchProducts(productIds)
+                .map(products -> {
+                    Map<String, FavoriteProduct> result = new HashMap<>();
+                    products.forEach((id, product) -> result.put(id, new FavoriteProduct(id,
+                            product.path("name").asText(null),
+                            product.path("price").isNumber() ? product.path("price").asDouble() : null)));
+                    return result;
+                })
+                .onErrorResume(ex -> {
+                    rateLimitedLogger.warn("find", "Circuit breaker activo o error al consultar {} productos (estado: {}): {}",
+                            productIds.size(), circuitBreaker.getState(), ex.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    private Mono<Boolean> fetchProductExists(String productId) {
+        return batcher.load(productId).map(Optional::isPresent);
+    }
+
+    /**
+     * Consulta un lote de productos en una sola petición GraphQL con un alias por producto
+     * ({@code p0: product(id: ...)}, {@code p1: ...}). Los reintentos usan backoff exponencial con jitter
+     * según {@code products.service.retry.*} y toda la secuencia queda protegida por el circuit breaker
+     * {@code productService}. Los errores se propagan para que la caché pueda servir datos antiguos.
+     * @return Los productos encontrados indexados por ID
+     */
+    private Mono<Map<String, JsonNode>> fetchProducts(List<String> productIds) {
+        StringBuilder query = new StringBuilder("query {");
+        for (int i = 0; i < productIds.size(); i++) {
+            query.append(" p").append(i).append(": product(id: ")
+                    .append(graphqlString(productIds.get(i))).append(") { id name price }");
+        }
+        query.append(" }");
+
+        // Cada intento (incluidos los reintentos) se mide por separado en products.requests
+        Mono<JsonNode> attempt = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/graphql")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("query", query.toString()))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .flatMap(response -> checkData(response, productIds.size()))
+                    .doOnSuccess(response -> recordAttempt(start, "success"))
+                    .doOnError(ex -> recordAttempt(start, "error"));
+        });
+        return attempt
+                .retryWhen(Retry.backoff(Math.max(maxAttempts - 1, 0), Duration.ofMillis(retryDelayMillis))
+                        .jitter(0.5)
+                        .filter(ProductService::isRetryable)
+                        .doBeforeRetry(signal -> {
+                            retries.increment();
+                            logger.debug("Intento {} fallido al consultar {} productos: {}",
+                                    signal.totalRetries() + 1, productIds.size(), signal.failure().getMessage());
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .map(response -> {
+                    // Un producto inexistente llega como alias nulo (normalmente acompañado de "errors")
+                    JsonNode data = response.path("data");
+                    Map<String, JsonNode> products = new HashMap<>();
+                    for (int i = 0; i < productIds.size(); i++) {
+                        JsonNode product = data.path("p" + i);
+                        if (product.isObject()) {
+                            products.put(productIds.get(i), product);
                         }
                     }
-                }
-                
-                return false; // No deberíamos llegar aquí, pero por si acaso
-            } catch (WebClientResponseException ex) {
-                // En caso de error HTTP, registramos el problema con más detalles
-                System.err.println("Error HTTP al verificar producto " + productId + ": " + 
-                                  "Código: " + ex.getRawStatusCode() + ", " +
-                                  "Mensaje: " + ex.getMessage());
-                throw ex; // Relanzamos para que el circuit breaker lo detecte
-            } catch (Exception ex) {
-                // En caso de cualquier otro error, registramos el problema con más detalles
-                System.err.println("Error inesperado al verificar producto " + productId + ": " + 
-                                  "Tipo: " + ex.getClass().getName() + ", " +
-                                  "Mensaje: " + ex.getMessage());
-                throw ex; // Relanzamos para que el circuit breaker lo detecte
-            }
-        };
-        
-        // Aplicamos el circuit breaker y manejamos el caso de circuito abierto
-        try {
-            return circuitBreaker.decorateSupplier(productExistsSupplier).get();
-        } catch (Exception e) {
-            // Si el circuito está abierto o hay un error, proporcionamos un valor por defecto
-            System.err.println("Circuit breaker activo o error al verificar producto " + productId + ": " + e.getMessage());
-            System.err.println("Estado del circuit breaker: " + circuitBreaker.getState());
-            return false; // Valor por defecto cuando el servicio no está disponible
+                    return products;
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    /**
+     * Una respuesta con {@code errors} sin {@code data}, o sin alguno de los alias, es un fallo del servicio
+     * de productos (validación, error interno) y no una lista de productos inexistentes: se propaga como error
+     * para que cuente en el circuit breaker, se reintente y no se guarden negativos en la caché.
+     */
+    private static Mono<JsonNode> checkData(JsonNode response, int aliases) {
+        JsonNode data = response.path("data");
+        boolean complete = data.isObject();
+        for (int i = 0; complete && i < aliases; i++) {
+            complete = data.has("p" + i);
+        }
+        if (complete) {
+            return Mono.just(response);
         }
+        JsonNode errors = response.path("errors");
+        String message = errors.isArray() && !errors.isEmpty()
+                ? errors.get(0).path("message").asText() : "respuesta sin data";
+        return Mono.error(new IllegalStateException("Respuesta incompleta del servicio de productos: " + message));
+    }
+
+    private void recordAttempt(long start, String outcome) {
+        meterRegistry.timer("products.requests", "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String graphqlString(String value) {
+        return "\"" + value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t") + "\"";
+    }
+
+    /**
+     * Los errores 4xx del servicio de productos no mejoran al reintentar.
+     */
+    private static boolean isRetryable(Throwable ex) {
+        return !(ex instanceof WebClientResponseException responseException)
+                || !responseException.getStatusCode().is4xxClientError();
     }
-    }
\ No newline at end of file
+}
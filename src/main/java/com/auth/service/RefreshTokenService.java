@@ -0,0 +1,87 @@
+package com.auth.service;
+
+import com.auth.model.RefreshToken;
+import com.auth.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Emisión y rotación de refresh tokens. El token entregado al cliente es un valor aleatorio
+ * opaco; en MongoDB solo se guarda su hash, de modo que una copia de la base de datos no sirve
+ * para renovar sesiones.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration = 2592000000L;
+
+    /**
+     * Genera y guarda el primer refresh token de una sesión nueva (login o registro).
+     * @return El token en claro, que solo se entrega al cliente
+     */
+    public String issue(String userId, String email, String role) {
+        return issue(userId, email, role, Instant.now().plusMillis(refreshExpiration));
+    }
+
+    /**
+     * Genera y guarda un refresh token con una expiración dada. Al rotar se conserva la expiración
+     * de la sesión original: renovar no alarga la sesión y, pasado ese plazo, hay que iniciar sesión.
+     * @return El token en claro, que solo se entrega al cliente
+     */
+    public String issue(String userId, String email, String role, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUserId(userId);
+        refreshToken.setEmail(email);
+        refreshToken.setRole(role);
+        refreshToken.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Invalida el refresh token y devuelve sus datos si era válido.
+     * Un token ya usado, desconocido o expirado devuelve vacío.
+     */
+    public Optional<RefreshToken> consume(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return refreshTokenRepository.consumeByTokenHash(hash(token), Instant.now());
+    }
+
+    /**
+     * Invalida todos los refresh tokens del usuario: ninguna de sus sesiones puede renovarse.
+     */
+    public void revokeAll(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.auth.service;
+
+import com.auth.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de usuarios en NDJSON (un objeto JSON por línea) leída directamente de un cursor de
+ * MongoDB: la memoria usada no depende del tamaño de la colección.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+    // La contraseña (hash) nunca es exportable
+    private static final Set<String> EXPORTABLE_FIELDS = Set.of("id", "email", "firstName", "lastName", "role", "favorites");
+    private static final List<String> DEFAULT_FIELDS = List.of("id", "email", "firstName", "lastName", "role");
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.export.batch-size:1000}")
+    private int batchSize = 1000;
+
+    /**
+     * @param fields Lista de campos separados por comas, o null para los campos por defecto
+     * @throws ResponseStatusException 400 si algún campo no es exportable
+     */
+    public List<String> resolveFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DEFAULT_FIELDS;
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!EXPORTABLE_FIELDS.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo no exportable: " + name);
+            }
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Escribe los usuarios en la salida a medida que llegan del cursor.
+     * @param role Rol por el que filtrar, o null para todos
+     * @return Número de usuarios exportados
+     */
+    public long export(List<String> fields, String role, OutputStream out) throws IOException {
+        // _id siempre viene en la proyección; "id" no es un campo almacenado
+        List<String> storedFields = fields.stream().filter(field -> !field.equals("id")).toList();
+        long count = 0;
+        try (Stream<Document> documents = userRepository.streamForExport(storedFields, role, batchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (String field : fields) {
+                    row.put(field, field.equals("id") ? String.valueOf(document.get("_id")) : document.get(field));
+                }
+                generator.writeObject(row);
+                // Se vacía el buffer en cada lote para no acumular la respuesta en memoria
+                if (++count % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+}
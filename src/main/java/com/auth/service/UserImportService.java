@@ -0,0 +1,184 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.ImportStatus;
+import com.auth.model.dto.ImportUserResult;
+import com.auth.model.dto.ImportUsersReport;
+import com.auth.model.dto.RegisterInput;
+import com.auth.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importación masiva de usuarios. Por cada bloque de filas:
+ * <ol>
+ *     <li>Descarta los emails ya registrados con una sola consulta {@code $in}.</li>
+ *     <li>Calcula los hashes BCrypt en paralelo en un pool propio, sin pasar por la cola
+ *     acotada de los inicios de sesión. El pool usa como máximo los procesadores menos uno (por defecto
+ *     la mitad), para que una importación no deje sin CPU a los inicios de sesión.</li>
+ *     <li>Inserta el bloque con una escritura masiva no ordenada.</li>
+ * </ol>
+ * Cada fila recibe su propio resultado; un error en una fila no detiene la importación.
+ * La petición es síncrona y mantiene en memoria las filas y el informe, por eso el número de filas por
+ * petición es bajo ({@code users.import.max-rows}); las importaciones grandes se envían en varias peticiones.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final Set<String> ROLES = Set.of("CUSTOMER", "SELLER", "ADMIN");
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder hashingEncoder = new BCryptPasswordEncoder();
+    private final ForkJoinPool hashingPool;
+    private final int batchSize;
+    private final int maxRows;
+
+    public UserImportService(UserRepository userRepository,
+                             @Value("${users.import.hashing-parallelism:0}") int hashingParallelism,
+                             @Value("${users.import.batch-size:1000}") int batchSize,
+                             @Value("${users.import.max-rows:1000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.hashingPool = new ForkJoinPool(hashingParallelism(hashingParallelism,
+                Runtime.getRuntime().availableProcessors()));
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @param configured Paralelismo configurado; 0 o menos = la mitad de los procesadores
+     * @return Entre 1 y los procesadores menos uno
+     */
+    static int hashingParallelism(int configured, int processors) {
+        int max = Math.max(processors - 1, 1);
+        return configured > 0 ? Math.min(configured, max) : Math.max(Math.min(processors / 2, max), 1);
+    }
+
+    public ImportUsersReport importUsers(List<RegisterInput> rows, String role) {
+        if (!ROLES.contains(role)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rol no válido: " + role);
+        }
+        if (rows.size() > maxRows) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La importación admite como máximo " + maxRows + " usuarios por petición");
+        }
+
+        ImportUserResult[] results = new ImportUserResult[rows.size()];
+        List<Integer> candidates = validate(rows, results);
+        for (int from = 0; from < candidates.size(); from += batchSize) {
+            List<Integer> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+            importBatch(rows, role, batch, results);
+        }
+
+        int created = (int) Arrays.stream(results).filter(r -> r.getStatus() == ImportStatus.CREATED).count();
+        return new ImportUsersReport(created, results.length - created, Arrays.asList(results));
+    }
+
+    /**
+     * Valida cada fila y descarta los emails repetidos dentro de la propia importación.
+     * @return Posiciones de las filas que pueden insertarse
+     */
+    private List<Integer> validate(List<RegisterInput> rows, ImportUserResult[] results) {
+        Map<String, Integer> firstIndexByEmail = new HashMap<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            RegisterInput row = rows.get(i);
+            String email = row.getEmail();
+            if (email == null || email.isBlank() || !email.contains("@")) {
+                results[i] = result(i, email, ImportStatus.INVALID, null, "Email no válido");
+            } else if (!AuthService.isSecurePassword(row.getPassword())) {
+                results[i] = result(i, email, ImportStatus.INVALID, null,
+                        "Password must be at least 8 characters long and contain both letters and numbers");
+            } else if (firstIndexByEmail.putIfAbsent(email, i) != null) {
+                results[i] = result(i, email, ImportStatus.DUPLICATE, null, "Email repetido en la importación");
+            } else {
+                candidates.add(i);
+            }
+        }
+        return candidates;
+    }
+
+    private void importBatch(List<RegisterInput> rows, String role, List<Integer> batch, ImportUserResult[] results) {
+        try {
+            Set<String> existing = userRepository.findExistingEmails(
+                    batch.stream().map(i -> rows.get(i).getEmail()).toList());
+            List<Integer> toInsert = new ArrayList<>();
+            for (int i : batch) {
+                if (existing.contains(rows.get(i).getEmail())) {
+                    results[i] = result(i, rows.get(i).getEmail(), ImportStatus.DUPLICATE, null, "Email already exists");
+                } else {
+                    toInsert.add(i);
+                }
+            }
+            if (toInsert.isEmpty()) {
+                return;
+            }
+
+            // El stream paralelo se ejecuta en el pool de la tarea que lo lanza: aquí, hashingPool
+            List<User> users = hashingPool.submit(() -> toInsert.parallelStream()
+                    .map(i -> toUser(rows.get(i), role))
+                    .toList()).join();
+
+            Map<Integer, Integer> failures = userRepository.insertUnordered(users);
+            for (int j = 0; j < users.size(); j++) {
+                int i = toInsert.get(j);
+                Integer errorCode = failures.get(j);
+                if (errorCode == null) {
+                    results[i] = result(i, users.get(j).getEmail(), ImportStatus.CREATED, users.get(j).getId(), null);
+                } else if (errorCode == DUPLICATE_KEY_ERROR) {
+                    results[i] = result(i, users.get(j).getEmail(), ImportStatus.DUPLICATE, null, "Email already exists");
+                } else {
+                    results[i] = result(i, users.get(j).getEmail(), ImportStatus.FAILED, null,
+                            "Error de MongoDB " + errorCode);
+                }
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo importar un bloque de {} usuarios: {}", batch.size(), ex.getMessage());
+            for (int i : batch) {
+                if (results[i] == null) {
+                    results[i] = result(i, rows.get(i).getEmail(), ImportStatus.FAILED, null,
+                            "No se pudo guardar el usuario. Intente nuevamente más tarde.");
+                }
+            }
+        }
+    }
+
+    private User toUser(RegisterInput row, String role) {
+        User user = new User();
+        // El ID se asigna aquí para poder informarlo sin leer los documentos insertados
+        user.setId(new ObjectId().toHexString());
+        user.setEmail(row.getEmail());
+        user.setPassword(hashingEncoder.encode(row.getPassword()));
+        user.setFirstName(row.getFirstName());
+        user.setLastName(row.getLastName());
+        user.setRole(role);
+        return user;
+    }
+
+    private static ImportUserResult result(int index, String email, ImportStatus status, String id, String message) {
+        return new ImportUserResult(index, email, status, id, message);
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+}
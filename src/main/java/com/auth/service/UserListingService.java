@@ -0,0 +1,81 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.model.dto.Edge;
+import com.auth.model.dto.PageInfo;
+import com.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listado paginado de usuarios para administración. Usa paginación por clave sobre el ID,
+ * por lo que el coste de una página no crece con su posición en la colección.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserListingService {
+    private static final String CURSOR_PREFIX = "user:";
+    // Campos almacenados que se pueden proyectar; la contraseña nunca se carga
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("email", "firstName", "lastName", "role", "favorites");
+
+    private final UserRepository userRepository;
+
+    @Value("${users.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    /**
+     * Devuelve una página de usuarios a partir del cursor indicado.
+     * Se pide un elemento extra para saber si existe una página siguiente.
+     * @param first Número de usuarios por página (entre 1 y el máximo configurado)
+     * @param after Cursor del último usuario de la página anterior, o null para empezar desde el inicio
+     * @param role Rol por el que filtrar, o null para todos
+     * @param fields Campos seleccionados por la consulta; los que no sean proyectables se ignoran
+     */
+    public Connection<User> getUsersPage(int first, String after, String role, Collection<String> fields) {
+        if (first < 1 || first > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El argumento first debe estar entre 1 y " + maxPageSize);
+        }
+        String afterId = after == null ? null : decodeCursor(after);
+        List<String> projection = fields.stream().filter(PROJECTABLE_FIELDS::contains).distinct().toList();
+
+        List<User> users = userRepository.findPage(role, afterId, first + 1, projection);
+
+        boolean hasNextPage = users.size() > first;
+        List<Edge<User>> edges = new ArrayList<>();
+        for (User user : users.subList(0, Math.min(first, users.size()))) {
+            edges.add(new Edge<>(encodeCursor(user.getId()), user));
+        }
+        String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+        return new Connection<>(edges, new PageInfo(hasNextPage, endCursor));
+    }
+
+    private static String encodeCursor(String userId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX) && ObjectId.isValid(decoded.substring(CURSOR_PREFIX.length()))) {
+                return decoded.substring(CURSOR_PREFIX.length());
+            }
+        } catch (IllegalArgumentException ex) {
+            // Cursor mal formado: se informa abajo como error de entrada
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de usuarios inválido");
+    }
+}
@@ -13,9 +13,13 @@ import org.springframework.stereotype.Service;
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
 
+    /**
+     * Carga el principal de la petición sin contraseña ni favoritos;
+     * los favoritos se consultan aparte solo si la consulta GraphQL los pide.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return userRepository.findProfileByEmail(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
     }
 }
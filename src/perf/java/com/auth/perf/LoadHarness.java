@@ -0,0 +1,344 @@
+package com.auth.perf;
+
+import com.auth.AuthApplication;
+import com.auth.model.User;
+import com.auth.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga extremo a extremo que no necesita servicios externos:
+ * <ul>
+ *     <li>MongoDB en memoria (mongo-java-server) y un servicio de productos simulado con latencia y
+ *     tasa de errores configurables.</li>
+ *     <li>La aplicación completa arranca en el mismo proceso, en un puerto libre.</li>
+ *     <li>Los clientes (hilos virtuales) envían una mezcla de login, me y addToFavorites y se informa
+ *     del rendimiento y de las latencias p50/p99/p999 por operación.</li>
+ * </ul>
+ * Con {@code rate} > 0 la carga es de ritmo fijo y la latencia se mide desde el instante previsto de
+ * envío, de modo que las esperas por saturación cuentan en los percentiles (omisión coordinada).
+ * Con {@code threads=both} se repite la prueba con hilos de plataforma y con hilos virtuales
+ * ({@code spring.threads.virtual.enabled}) para comparar ambos modos con la misma carga.
+ * Ver {@link LoadOptions} para los parámetros.
+ */
+public class LoadHarness {
+
+    private static final String PASSWORD = "Password123";
+    private static final String LOGIN = "mutation($input: LoginInput!) { login(input: $input) { token } }";
+    private static final String ME = "{ me { id email role favoritesCount } }";
+    private static final String ADD_TO_FAVORITES = "mutation($id: ID!) { addToFavorites(productId: $id) { id } }";
+
+    private final LoadOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private HttpClient httpClient;
+    private URI graphqlUri;
+
+    LoadHarness(LoadOptions options) {
+        this.options = options;
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : operations) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int status = 0;
+        try {
+            for (LoadOptions run : LoadOptions.parse(args).runs()) {
+                new LoadHarness(run).run();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        // Los hilos no daemon del cliente HTTP y de Reactor no deben impedir la salida
+        System.exit(status);
+    }
+
+    void run() throws Exception {
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        StubProductsServer products = new StubProductsServer(options.productsLatencyMillis(), options.productsErrorRate());
+        products.start();
+        ConfigurableApplicationContext context = null;
+        try {
+            Map<String, String> defaults = new LinkedHashMap<>();
+            defaults.put("server.port", "0");
+            defaults.put("management.server.port", "0");
+            defaults.put("spring.data.mongodb.uri",
+                    "mongodb://" + mongoAddress.getHostString() + ":" + mongoAddress.getPort());
+            defaults.put("products.service.url", products.url());
+            // Todos los clientes comparten la IP local: el límite por IP rechazaría los logins concurrentes
+            defaults.put("security.login-throttle.max-attempts-per-ip", "0");
+            defaults.put("logging.level.com.auth", "INFO");
+            defaults.put("logging.level.org.springframework.security", "INFO");
+            defaults.put("logging.level.org.springframework.data.mongodb", "INFO");
+            defaults.put("logging.level.de.bwaldvogel.mongo", "WARN");
+            context = SpringApplication.run(AuthApplication.class, applicationArgs(defaults));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            graphqlUri = URI.create("http://localhost:" + port + "/graphql");
+            seedUsers(context);
+
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String[] tokens = authenticate();
+
+            System.out.printf("Carga: %d clientes, %s, mix %s, hilos %s, %ds de calentamiento y %ds de medición%n",
+                    options.concurrency(), options.rate() > 0 ? options.rate() + " req/s" : "bucle cerrado",
+                    options.mix(), threadMode(context), options.warmupSeconds(), options.durationSeconds());
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < options.concurrency(); i++) {
+                    int client = i;
+                    clients.submit(() -> runClient(client, tokens[client % tokens.length], warmupEnd, end));
+                }
+            }
+            report(products);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            products.stop();
+            mongo.shutdown();
+        }
+    }
+
+    private static String threadMode(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                ? "virtuales" : "de plataforma";
+    }
+
+    /**
+     * Los argumentos {@code --clave=valor} del usuario prevalecen sobre los valores por defecto.
+     */
+    private String[] applicationArgs(Map<String, String> defaults) {
+        List<String> args = new ArrayList<>(options.springArgs());
+        defaults.forEach((key, value) -> {
+            if (args.stream().noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+                args.add("--" + key + "=" + value);
+            }
+        });
+        return args.toArray(String[]::new);
+    }
+
+    /**
+     * Guarda los usuarios directamente con un único hash: BCrypt no debe dominar el arranque.
+     */
+    private void seedUsers(ConfigurableApplicationContext context) {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            User user = new User();
+            user.setEmail(email(i));
+            user.setPassword(hash);
+            user.setFirstName("Perf");
+            user.setLastName("User " + i);
+            user.setRole("CUSTOMER");
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+    }
+
+    private static String email(int user) {
+        return "perf-user-" + user + "@example.com";
+    }
+
+    /**
+     * Inicia una sesión por usuario antes de la carga, con tantos logins simultáneos como procesadores:
+     * con muchos clientes y pocos núcleos, los logins iniciales (BCrypt) a la vez saturarían el pool de
+     * hashing y los clientes sin token solo medirían errores de autenticación.
+     */
+    private String[] authenticate() {
+        String[] tokens = new String[Math.min(options.users(), options.concurrency())];
+        try (ExecutorService logins = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            for (int i = 0; i < tokens.length; i++) {
+                int user = i;
+                logins.submit(() -> {
+                    for (int attempt = 0; attempt < 5 && tokens[user] == null; attempt++) {
+                        tokens[user] = login(email(user));
+                    }
+                });
+            }
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] == null) {
+                throw new IllegalStateException("No se pudo iniciar sesión con " + email(i));
+            }
+        }
+        return tokens;
+    }
+
+    private void runClient(int client, String initialToken, long warmupEnd, long end) {
+        String email = email(client % options.users());
+        String token = initialToken;
+        long interval = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.concurrency()) / options.rate() : 0;
+        // Escalona los clientes de ritmo fijo para no enviar todos a la vez
+        long next = System.nanoTime() + (interval > 0 ? ThreadLocalRandom.current().nextLong(interval) : 0);
+
+        while (true) {
+            long start;
+            if (interval > 0) {
+                start = next;
+                next += interval;
+                long wait = start - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                start = System.nanoTime();
+            }
+            if (start >= end) {
+                return;
+            }
+
+            Operation operation = nextOperation();
+            String result = execute(operation, email, token);
+            long latency = System.nanoTime() - start;
+            if (operation == Operation.LOGIN && result != null) {
+                token = result;
+            }
+            if (start >= warmupEnd) {
+                latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                if (result == null) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    private Operation nextOperation() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * @return El token en login, el cuerpo de la respuesta en el resto, o null si la operación falló
+     */
+    private String execute(Operation operation, String email, String token) {
+        return switch (operation) {
+            case LOGIN -> login(email);
+            case ME -> send(Map.of("query", ME), token);
+            case ADD_TO_FAVORITES -> send(Map.of("query", ADD_TO_FAVORITES, "variables",
+                    Map.of("id", "prod-" + ThreadLocalRandom.current().nextInt(options.products()))), token);
+        };
+    }
+
+    private String login(String email) {
+        String body = send(Map.of("query", LOGIN, "variables",
+                Map.of("input", Map.of("email", email, "password", PASSWORD))), null);
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode token = objectMapper.readTree(body).path("data").path("login").path("token");
+            return token.isTextual() ? token.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return El cuerpo de la respuesta, o null si no es un 200 sin errores GraphQL
+     */
+    private String send(Map<String, Object> payload, String token) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(graphqlUri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void report(StubProductsServer products) {
+        double seconds = options.durationSeconds();
+        Histogram total = null;
+        long totalErrors = 0;
+        System.out.printf("%n%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operación", "peticiones", "errores", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Operation operation : operations) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            long operationErrors = errors.get(operation).sum();
+            printRow(operation.getName(), histogram, operationErrors, seconds);
+            if (total == null) {
+                total = histogram.copy();
+            } else {
+                total.add(histogram);
+            }
+            totalErrors += operationErrors;
+        }
+        printRow("total", total, totalErrors, seconds);
+        System.out.printf("%nServicio de productos simulado: %d peticiones, %d errores (latencia %d ms, tasa de error %.2f)%n",
+                products.requests(), products.errors(), options.productsLatencyMillis(), options.productsErrorRate());
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
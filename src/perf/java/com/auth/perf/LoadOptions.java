@@ -0,0 +1,123 @@
+package com.auth.perf;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga. Se pasan como {@code clave=valor}; los argumentos que empiezan
+ * por {@code --} se entregan a la aplicación como propiedades de Spring (p. ej. la configuración
+ * del circuit breaker o de los reintentos).
+ *
+ * @param durationSeconds Duración de la medición
+ * @param warmupSeconds Calentamiento previo, sin registrar latencias
+ * @param concurrency Clientes concurrentes
+ * @param rate Peticiones por segundo en total; 0 = bucle cerrado (cada cliente envía al recibir respuesta)
+ * @param users Usuarios sembrados; los clientes se reparten entre ellos
+ * @param products IDs de producto distintos que se añaden a favoritos
+ * @param mix Peso relativo de cada operación
+ * @param productsLatencyMillis Latencia del servicio de productos simulado
+ * @param productsErrorRate Fracción de respuestas 500 del servicio de productos simulado
+ * @param threads Modo de hilos de la aplicación ({@code spring.threads.virtual.enabled}): platform, virtual,
+ *                both (una ejecución en cada modo, para compararlos) o default (la configuración de la aplicación)
+ * @param springArgs Argumentos para la aplicación
+ */
+record LoadOptions(int durationSeconds, int warmupSeconds, int concurrency, int rate, int users, int products,
+                   Map<Operation, Integer> mix, long productsLatencyMillis, double productsErrorRate,
+                   String threads, List<String> springArgs) {
+
+    private static final List<String> THREAD_MODES = List.of("default", "platform", "virtual", "both");
+
+    static LoadOptions parse(String[] args) {
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        int concurrency = 64;
+        int rate = 0;
+        int users = 200;
+        int products = 1000;
+        Map<Operation, Integer> mix = parseMix("login:10,me:70,addToFavorites:20");
+        long productsLatencyMillis = 20;
+        double productsErrorRate = 0;
+        String threads = "default";
+        List<String> springArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            switch (key) {
+                case "duration" -> durationSeconds = Integer.parseInt(value);
+                case "warmup" -> warmupSeconds = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "users" -> users = Integer.parseInt(value);
+                case "products" -> products = Integer.parseInt(value);
+                case "mix" -> mix = parseMix(value);
+                case "productsLatencyMs" -> productsLatencyMillis = Long.parseLong(value);
+                case "productsErrorRate" -> productsErrorRate = Double.parseDouble(value);
+                case "threads" -> threads = value;
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + key);
+            }
+        }
+        if (concurrency <= 0 || users <= 0 || products <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("duration, concurrency, users y products deben ser positivos");
+        }
+        if (!THREAD_MODES.contains(threads)) {
+            throw new IllegalArgumentException("threads debe ser uno de " + THREAD_MODES);
+        }
+        if (!threads.equals("default")
+                && springArgs.stream().anyMatch(arg -> arg.startsWith("--spring.threads.virtual.enabled="))) {
+            throw new IllegalArgumentException("Use threads o --spring.threads.virtual.enabled, no ambos");
+        }
+        return new LoadOptions(durationSeconds, warmupSeconds, concurrency, rate, users, products, mix,
+                productsLatencyMillis, productsErrorRate, threads, springArgs);
+    }
+
+    /**
+     * Una ejecución por modo de hilos; con {@code threads=both}, primero con hilos de plataforma y
+     * después con hilos virtuales, con la misma carga.
+     */
+    List<LoadOptions> runs() {
+        return switch (threads) {
+            case "both" -> List.of(withThreads("platform"), withThreads("virtual"));
+            case "platform", "virtual" -> List.of(withThreads(threads));
+            default -> List.of(this);
+        };
+    }
+
+    private LoadOptions withThreads(String mode) {
+        List<String> args = new ArrayList<>(springArgs);
+        args.add("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+        return new LoadOptions(durationSeconds, warmupSeconds, concurrency, rate, users, products, mix,
+                productsLatencyMillis, productsErrorRate, mode, args);
+    }
+
+    /**
+     * Formato {@code operación:peso,...}, p. ej. {@code login:10,me:70,addToFavorites:20}.
+     */
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de mix no válida: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                mix.put(Operation.fromName(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("El mix debe incluir al menos una operación con peso positivo");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,29 @@
+package com.auth.perf;
+
+import java.util.Arrays;
+
+/**
+ * Operaciones GraphQL de la carga mixta.
+ */
+enum Operation {
+    LOGIN("login"),
+    ME("me"),
+    ADD_TO_FAVORITES("addToFavorites");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operación desconocida: " + name));
+    }
+}
@@ -0,0 +1,97 @@
+package com.auth.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servicio de productos simulado en /graphql con latencia y tasa de errores configurables.
+ * Responde a las consultas con alias que envía ProductService: todos los productos existen.
+ */
+class StubProductsServer {
+
+    private static final Pattern ALIAS = Pattern.compile("(p\\d+): product\\(id: \\\\\"([^\\\\]+)\\\\\"\\)");
+
+    private final HttpServer server;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * @param latencyMillis Latencia añadida a cada respuesta
+     * @param errorRate Fracción de peticiones (0..1) que responden 500
+     */
+    StubProductsServer(long latencyMillis, double errorRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/graphql", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int status = 200;
+        String body;
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            status = 500;
+            body = "{}";
+        } else {
+            Matcher alias = ALIAS.matcher(request);
+            StringJoiner data = new StringJoiner(",", "{\"data\":{", "}}");
+            while (alias.find()) {
+                data.add("\"" + alias.group(1) + "\":{\"id\":\"" + alias.group(2)
+                        + "\",\"name\":\"Producto " + alias.group(2) + "\",\"price\":10.0}");
+            }
+            body = data.toString();
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
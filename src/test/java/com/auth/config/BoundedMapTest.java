@@ -0,0 +1,67 @@
+package com.auth.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del mapa acotado con descarte en bloque
+ */
+class BoundedMapTest {
+
+    @Test
+    void put_Full_EvictsInBulkInOrder() {
+        BoundedMap<String, Integer> map = new BoundedMap<>(20, Comparator.naturalOrder());
+        for (int i = 0; i < 20; i++) {
+            map.put("k" + i, i);
+        }
+
+        assertTrue(map.put("nuevo", 100));
+
+        // Se descarta hasta el 90 % de la capacidad: las dos entradas con menor valor
+        assertEquals(19, map.size());
+        assertNull(map.get("k0"));
+        assertNull(map.get("k1"));
+        assertEquals(2, map.get("k2"));
+        assertEquals(100, map.get("nuevo"));
+    }
+
+    @Test
+    void put_FullOfProtectedEntries_NewKeyNotStored() {
+        BoundedMap<String, Integer> map = new BoundedMap<>(10, Comparator.naturalOrder(), value -> value < 5);
+        for (int i = 0; i < 10; i++) {
+            map.put("k" + i, 10 + i);
+        }
+
+        assertFalse(map.put("nuevo", 0));
+        assertEquals(10, map.size());
+        assertEquals(10, map.get("k0"));
+        // Las claves existentes se siguen actualizando
+        assertTrue(map.put("k0", 11));
+        assertEquals(11, map.compute("k0", (key, value) -> value));
+    }
+
+    @Test
+    void compute_Full_EvictsOnlyEvictableEntries() {
+        BoundedMap<String, Integer> map = new BoundedMap<>(10, Comparator.naturalOrder(), value -> value < 5);
+        for (int i = 0; i < 10; i++) {
+            map.put("k" + i, i);
+        }
+
+        assertEquals(1, map.compute("nuevo", (key, value) -> value == null ? 1 : value + 1));
+
+        assertEquals(1, map.get("nuevo"));
+        assertNull(map.get("k0"));
+        assertEquals(9, map.get("k9"));
+    }
+
+    @Test
+    void put_ZeroMaxSize_Disabled() {
+        BoundedMap<String, Integer> map = new BoundedMap<>(0, Comparator.naturalOrder());
+
+        assertFalse(map.put("k", 1));
+        assertEquals(0, map.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.auth.config;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de documentos y las consultas persistidas automáticas
+ */
+class CachingPersistedQuerySupportTest {
+
+    private static final String QUERY = "{ hello }";
+
+    private SimpleMeterRegistry meterRegistry;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse("type Query { hello: String }"),
+                RuntimeWiring.newRuntimeWiring()
+                        .type("Query", type -> type.dataFetcher("hello", env -> "hola"))
+                        .build());
+        graphQL = GraphQL.newGraphQL(schema)
+                .preparsedDocumentProvider(new CachingPersistedQuerySupport(new DocumentCache(10, meterRegistry)))
+                .build();
+    }
+
+    private ExecutionResult execute(String query, String hash) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (hash != null) {
+            input.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        }
+        return graphQL.execute(input.build());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("graphql.documents.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void execute_RepeatedQuery_ParsedOnce() {
+        assertEquals(Map.of("hello", "hola"), execute(QUERY, null).getData());
+        assertEquals(Map.of("hello", "hola"), execute(QUERY, null).getData());
+
+        assertEquals(1.0, count("miss"));
+        assertEquals(1.0, count("hit"));
+    }
+
+    @Test
+    void execute_HashOnly_ResolvedAfterQueryWasSeen() {
+        String hash = CachingPersistedQuerySupport.sha256(QUERY);
+
+        ExecutionResult unknown = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+        assertEquals("PersistedQueryNotFound", unknown.getErrors().get(0).getMessage());
+
+        execute(QUERY, hash);
+        ExecutionResult result = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(Map.of("hello", "hola"), result.getData());
+    }
+
+    @Test
+    void execute_HashDoesNotMatchQuery_Rejected() {
+        ExecutionResult result = execute(QUERY, CachingPersistedQuerySupport.sha256("{ otra }"));
+
+        assertFalse(result.getErrors().isEmpty());
+        assertNull(result.getData());
+    }
+}
@@ -0,0 +1,101 @@
+package com.auth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Pruebas del filtro que completa las peticiones APQ que solo traen el hash
+ */
+class PersistedQueryRequestFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PersistedQueryRequestFilter filter = new PersistedQueryRequestFilter(objectMapper);
+
+    private ServletRequest filter(String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest();
+    }
+
+    @Test
+    void doFilter_HashOnly_AddsQueryMarker() throws Exception {
+        ServletRequest request = filter(
+                "{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc\"}}}");
+
+        Map<?, ?> document = objectMapper.readValue(request.getInputStream(), Map.class);
+        assertEquals(PersistedQuerySupport.PERSISTED_QUERY_MARKER, document.get("query"));
+        assertEquals(request.getContentLength(), objectMapper.writeValueAsBytes(document).length);
+    }
+
+    @Test
+    void doFilter_PersistedQueryOutsideExtensions_BodyUnchanged() throws Exception {
+        String body = "{\"query\":\"{ me { id } }\",\"variables\":{\"persistedQuery\":true}}";
+
+        ServletRequest request = filter(body);
+
+        assertEquals(body, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_NoPersistedQueryKey_BodyPassedThroughWithoutParsing() throws Exception {
+        ObjectMapper mapper = spy(new ObjectMapper());
+        PersistedQueryRequestFilter rawFilter = new PersistedQueryRequestFilter(mapper);
+        String body = "{\"query\":\"{ me { id } }\",\"variables\":{\"first\":10}}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        rawFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(mapper);
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getInputStream_ReadListener_NotifiedWithCachedBody() throws Exception {
+        ServletInputStream in = filter("{\"query\":\"{ me { id } }\"}").getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertEquals("{\"query\":\"{ me { id } }\"}", read.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead.get());
+    }
+}
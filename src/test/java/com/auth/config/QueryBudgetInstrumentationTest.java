@@ -0,0 +1,89 @@
+package com.auth.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los límites de profundidad, complejidad y alias de las consultas
+ */
+class QueryBudgetInstrumentationTest {
+
+    private static final String SCHEMA = """
+            directive @cost(weight: Int!) on FIELD_DEFINITION
+            type Query { node: Node, nodes(first: Int = 10): [Node!]! @cost(weight: 5) }
+            type Node { name: String, child: Node, remote: String @cost(weight: 10) }
+            """;
+
+    private static GraphQL graphQL(int maxDepth, int maxComplexity, int maxAliases) {
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse(SCHEMA),
+                RuntimeWiring.newRuntimeWiring()
+                        .type("Query", type -> type
+                                .dataFetcher("node", env -> Map.of("name", "n"))
+                                .dataFetcher("nodes", env -> List.of()))
+                        .build());
+        return GraphQL.newGraphQL(schema)
+                .instrumentation(new QueryBudgetInstrumentation(maxDepth, maxComplexity, maxAliases, new SimpleMeterRegistry()))
+                .build();
+    }
+
+    private static Map<String, Object> rejection(ExecutionResult result) {
+        assertNull(result.getData());
+        assertEquals(1, result.getErrors().size());
+        GraphQLError error = result.getErrors().get(0);
+        assertEquals("QUERY_BUDGET_EXCEEDED", error.getExtensions().get("code"));
+        return error.getExtensions();
+    }
+
+    @Test
+    void execute_WithinBudget_Runs() {
+        ExecutionResult result = graphQL(5, 100, 2).execute("{ node { name child { name } } }");
+
+        assertTrue(result.getErrors().isEmpty());
+        assertNotNull(result.getData());
+    }
+
+    @Test
+    void execute_TooDeep_RejectedWithMeasuredDepth() {
+        Map<String, Object> extensions = rejection(graphQL(3, 1000, 10).execute("{ node { child { child { child { name } } } } }"));
+
+        assertEquals("depth", extensions.get("limit"));
+        assertEquals(5, extensions.get("depth"));
+    }
+
+    @Test
+    void execute_ListFieldMultipliesChildCost() {
+        // nodes: 5 + first(20) * (name 1 + remote 10) = 225
+        Map<String, Object> extensions = rejection(graphQL(10, 200, 10).execute("{ nodes(first: 20) { name remote } }"));
+
+        assertEquals("complexity", extensions.get("limit"));
+        assertEquals(225, extensions.get("complexity"));
+    }
+
+    @Test
+    void execute_TooManyAliases_Rejected() {
+        Map<String, Object> extensions = rejection(graphQL(10, 1000, 2).execute("{ a: node { name } b: node { name } c: node { name } }"));
+
+        assertEquals("aliases", extensions.get("limit"));
+        assertEquals(3, extensions.get("aliases"));
+    }
+
+    @Test
+    void execute_Introspection_NotCounted() {
+        ExecutionResult result = graphQL(2, 5, 0).execute("{ __schema { types { fields { type { ofType { name } } } } } }");
+
+        assertTrue(result.getErrors().isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.auth.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del logger con límite de mensajes por intervalo
+ */
+class RateLimitedLoggerTest {
+
+    private Logger logger;
+    private AtomicLong now;
+    private RateLimitedLogger rateLimitedLogger;
+
+    @BeforeEach
+    void setUp() {
+        logger = mock(Logger.class);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        now = new AtomicLong(1000);
+        rateLimitedLogger = new RateLimitedLogger(logger, 2, 10000, now::get);
+    }
+
+    @Test
+    void warn_OverLimit_SuppressesUntilNextInterval() {
+        for (int i = 0; i < 5; i++) {
+            rateLimitedLogger.warn("clave", "Fallo {}", i);
+        }
+
+        verify(logger).warn("Fallo {}", new Object[]{0});
+        verify(logger).warn("Fallo {}", new Object[]{1});
+        verify(logger, times(2)).warn(anyString(), any(Object[].class));
+
+        now.addAndGet(10000);
+        rateLimitedLogger.warn("clave", "Fallo {}", 5);
+
+        verify(logger).warn("Fallo {} ({} mensajes similares omitidos)", new Object[]{5, 3L});
+    }
+
+    @Test
+    void warn_DifferentKeys_LimitedIndependently() {
+        rateLimitedLogger.warn("a", "Fallo");
+        rateLimitedLogger.warn("a", "Fallo");
+        rateLimitedLogger.warn("a", "Fallo");
+        rateLimitedLogger.warn("b", "Fallo");
+
+        verify(logger, times(3)).warn(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void error_SuppressedCount_InsertedBeforeThrowable() {
+        IllegalStateException exception = new IllegalStateException("sin servicio");
+        for (int i = 0; i < 3; i++) {
+            rateLimitedLogger.error("clave", "Error: {}", "x", exception);
+        }
+        now.addAndGet(10000);
+        rateLimitedLogger.error("clave", "Error: {}", "x", exception);
+
+        verify(logger).error("Error: {} ({} mensajes similares omitidos)", new Object[]{"x", 1L, exception});
+    }
+
+    @Test
+    void warn_LevelDisabled_NothingLogged() {
+        when(logger.isWarnEnabled()).thenReturn(false);
+
+        rateLimitedLogger.warn("clave", "Fallo");
+
+        verify(logger, never()).warn(anyString(), any(Object[].class));
+    }
+}
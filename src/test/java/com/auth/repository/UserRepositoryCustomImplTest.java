@@ -0,0 +1,81 @@
+package com.auth.repository;
+
+import com.auth.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de las proyecciones de las consultas personalizadas de usuarios
+ */
+class UserRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private UserRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repository = new UserRepositoryCustomImpl(mongoTemplate);
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.empty());
+    }
+
+    private Document exportProjection(List<String> fields) {
+        repository.streamForExport(fields, null, 100).close();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Document.class), eq("users"));
+        return query.getValue().getFieldsObject();
+    }
+
+    @Test
+    void streamForExport_OnlyId_ProjectsIdInsteadOfWholeDocument() {
+        // fields=id: el servicio no pide ningún campo almacenado
+        assertEquals(new Document("_id", 1), exportProjection(List.of()));
+    }
+
+    @Test
+    void streamForExport_Fields_ProjectsIdAndRequestedFields() {
+        Document projection = exportProjection(List.of("email", "role"));
+
+        assertEquals(new Document("_id", 1).append("email", 1).append("role", 1), projection);
+        assertFalse(projection.containsKey("password"));
+    }
+
+    @Test
+    void countFavorites_SeveralUsers_OneAggregation() {
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(User.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", first).append("count", 3),
+                        new Document("_id", second).append("count", 0)), new Document()));
+
+        Map<String, Integer> counts = repository.countFavorites(List.of(first.toHexString(), second.toHexString()));
+
+        assertEquals(Map.of(first.toHexString(), 3, second.toHexString(), 0), counts);
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(User.class), eq(Document.class));
+        assertTrue(aggregation.getValue().toString().contains("$in"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la carga de claves de firma y su publicación como JWKS
+ */
+class JwtKeyManagerTest {
+
+    @TempDir
+    Path keysDirectory;
+
+    private void writePem(String file, String type, byte[] der) throws Exception {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        Files.writeString(keysDirectory.resolve(file), pem);
+    }
+
+    private KeyPair ecKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    @Test
+    void load_Es256_PublishesActiveAndRetiredKeys() throws Exception {
+        KeyPair active = ecKeyPair();
+        writePem("2026-10.pem", "PRIVATE KEY", active.getPrivate().getEncoded());
+        writePem("2026-10.pub.pem", "PUBLIC KEY", active.getPublic().getEncoded());
+        // Clave retirada: solo la pública, para verificar los tokens que firmó
+        writePem("2026-09.pub.pem", "PUBLIC KEY", ecKeyPair().getPublic().getEncoded());
+
+        JwtKeyManager keyManager = new JwtKeyManager("ES256", keysDirectory.toString(), "2026-10");
+
+        List<Map<String, Object>> jwks = keyManager.getJwks();
+        assertEquals(List.of("2026-09", "2026-10"), jwks.stream().map(jwk -> jwk.get("kid")).toList());
+        Map<String, Object> jwk = jwks.get(1);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(32, Base64.getUrlDecoder().decode((String) jwk.get("x")).length);
+        assertFalse(jwk.containsKey("d"));
+        assertEquals(active.getPublic(), keyManager.getPublicKey("2026-10").orElseThrow());
+    }
+
+    @Test
+    void load_ActiveKidWithoutPrivateKey_FailsAtStartup() throws Exception {
+        writePem("2026-09.pub.pem", "PUBLIC KEY", ecKeyPair().getPublic().getEncoded());
+
+        assertThrows(IllegalStateException.class,
+                () -> new JwtKeyManager("ES256", keysDirectory.toString(), "2026-09"));
+    }
+
+    @Test
+    void load_Hs256_NoKeysPublished() {
+        JwtKeyManager keyManager = new JwtKeyManager("HS256", "", "");
+
+        assertFalse(keyManager.isAsymmetric());
+        assertTrue(keyManager.getJwks().isEmpty());
+    }
+}
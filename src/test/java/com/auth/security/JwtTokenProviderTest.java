@@ -0,0 +1,158 @@
+package com.auth.security;
+
+import com.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de emisión y validación de tokens JWT
+ */
+class JwtTokenProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtTokenProvider = provider(new JwtKeyManager("HS256", "", ""));
+    }
+
+    private JwtTokenProvider provider(JwtKeyManager keyManager) {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(userDetailsService, keyManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "test-secret-key-with-at-least-256-bits-for-hs256");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 60000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "cacheMaxSize", 100);
+        jwtTokenProvider.init();
+        return jwtTokenProvider;
+    }
+
+    private static JwtKeyManager rsaKeyManager(String kid, KeyPair keyPair) {
+        return new JwtKeyManager(SignatureAlgorithm.RS256, kid, keyPair.getPrivate(), Map.of(kid, keyPair.getPublic()));
+    }
+
+    @Test
+    void createToken_Rs256_SignedWithActiveKidAndVerified() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        JwtTokenProvider rsaProvider = provider(rsaKeyManager("clave-1", keyPair));
+
+        String token = rsaProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        assertEquals("clave-1", Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build()
+                .parseClaimsJws(token).getHeader().getKeyId());
+        assertTrue(rsaProvider.validateToken(token));
+        // Un token HS256 con el secreto compartido ya no es válido en modo asimétrico
+        assertFalse(rsaProvider.validateToken(jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1")));
+    }
+
+    @Test
+    void validateToken_Rs256_UnknownKid_ReturnsFalse() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        String foreignToken = provider(rsaKeyManager("otra", generator.generateKeyPair()))
+                .createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        JwtTokenProvider rsaProvider = provider(rsaKeyManager("clave-1", generator.generateKeyPair()));
+
+        assertFalse(rsaProvider.validateToken(foreignToken));
+    }
+
+    @Test
+    void validateToken_ValidToken_ReturnsTrue() {
+        String token = jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        assertTrue(jwtTokenProvider.validateToken(token));
+        assertEquals("cliente@example.com", jwtTokenProvider.getUsername(token));
+    }
+
+    @Test
+    void validateToken_TamperedToken_ReturnsFalse() {
+        String token = jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        assertFalse(jwtTokenProvider.validateToken(token + "x"));
+    }
+
+    @Test
+    void resolveClaims_RepeatedToken_ServedFromCache() {
+        String token = jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        Optional<Claims> first = jwtTokenProvider.resolveClaims(token);
+        Optional<Claims> second = jwtTokenProvider.resolveClaims(token);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals("user1", second.get().get("uid", String.class));
+    }
+
+    @Test
+    void createToken_EachTokenHasUniqueJti() {
+        Claims first = jwtTokenProvider.resolveClaims(
+                jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1")).orElseThrow();
+        Claims second = jwtTokenProvider.resolveClaims(
+                jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1")).orElseThrow();
+
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void resolveClaims_ExpiredToken_ReturnsEmpty() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", -1000L);
+        String token = jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+
+        assertTrue(jwtTokenProvider.resolveClaims(token).isEmpty());
+    }
+
+    @Test
+    void getAuthentication_StatefulMode_LoadsUser() {
+        User user = new User();
+        user.setId("user1");
+        user.setEmail("cliente@example.com");
+        user.setRole("CUSTOMER");
+        when(userDetailsService.loadUserByUsername("cliente@example.com")).thenReturn(user);
+
+        String token = jwtTokenProvider.createToken("cliente@example.com", "CUSTOMER", "user1");
+        Authentication auth = jwtTokenProvider.getAuthentication(token);
+
+        assertSame(user, auth.getPrincipal());
+    }
+
+    @Test
+    void getAuthentication_StatelessMode_BuildsPrincipalFromClaims() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessPrincipal", true);
+
+        String token = jwtTokenProvider.createToken("vendedor@example.com", "SELLER", "user2");
+        Authentication auth = jwtTokenProvider.getAuthentication(token);
+
+        ClaimsUser principal = assertInstanceOf(ClaimsUser.class, auth.getPrincipal());
+        assertEquals("user2", principal.getId());
+        assertEquals("vendedor@example.com", principal.getEmail());
+        assertEquals("SELLER", principal.getRole());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SELLER")));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+}
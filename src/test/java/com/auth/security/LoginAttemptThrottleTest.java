@@ -0,0 +1,136 @@
+package com.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del límite de intentos de inicio de sesión
+ */
+class LoginAttemptThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new LoginAttemptThrottle(3, 5, 60000, 100, meterRegistry);
+    }
+
+    private double blocked(String key) {
+        return meterRegistry.get("auth.login.throttled").tag("key", key).counter().count();
+    }
+
+    @Test
+    void checkAllowed_EmailOverLimit_Rejected() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("Cliente@Example.com", "10.0.0." + i);
+        }
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> throttle.checkAllowed("cliente@example.com", "10.0.0.9"));
+
+        assertEquals(429, exception.getStatusCode().value());
+        assertEquals(1.0, blocked("email"));
+        assertDoesNotThrow(() -> throttle.checkAllowed("otro@example.com", "10.0.0.9"));
+    }
+
+    @Test
+    void checkAllowed_IpOverLimit_RejectedForAnyEmail() {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAllowed("usuario" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAllowed("nuevo@example.com", "10.0.0.1"));
+        assertEquals(1.0, blocked("ip"));
+        // El rechazo por IP no consume un intento del email
+        throttle.checkAllowed("nuevo@example.com", "10.0.0.2");
+        throttle.checkAllowed("nuevo@example.com", "10.0.0.2");
+        throttle.checkAllowed("nuevo@example.com", "10.0.0.2");
+    }
+
+    @Test
+    void recordSuccess_ResetsEmailCounterAndReleasesIp() {
+        for (int i = 0; i < 2; i++) {
+            throttle.checkAllowed("cliente@example.com", "10.0.0.1");
+        }
+        throttle.recordSuccess("cliente@example.com", "10.0.0.1");
+        for (int i = 0; i < 2; i++) {
+            throttle.checkAllowed("cliente@example.com", "10.0.0.1");
+        }
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("cliente@example.com", "10.0.0.1"));
+        // 5 intentos en la IP, uno de ellos correcto: queda margen para otro
+        assertDoesNotThrow(() -> throttle.checkAllowed("otro@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void release_AttemptNotCounted() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("cliente@example.com", null);
+            throttle.release("cliente@example.com", null);
+        }
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("cliente@example.com", null));
+    }
+
+    @Test
+    void checkAllowed_ConcurrentAttempts_OnlyLimitAllowed() throws Exception {
+        int attempts = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        throttle.checkAllowed("cliente@example.com", null);
+                        return true;
+                    } catch (ResponseStatusException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int allowed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(5, TimeUnit.SECONDS)) {
+                    allowed++;
+                }
+            }
+
+            assertEquals(3, allowed);
+            assertEquals(attempts - 3.0, blocked("email"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkAllowed_MaxKeysReached_StaysBoundedAndKeepsBlockedKeys() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("victima@example.com", null);
+        }
+
+        // Emails aleatorios para llenar el mapa y desplazar el contador de la víctima
+        for (int i = 0; i < 500; i++) {
+            throttle.checkAllowed("usuario" + i + "@example.com", null);
+        }
+
+        assertTrue(meterRegistry.get("auth.login.throttle.keys").gauge().value() <= 100);
+        assertThrows(ResponseStatusException.class, () -> throttle.checkAllowed("victima@example.com", null));
+    }
+}
@@ -215,4 +215,18 @@ public class RoleAuthorizationHandlerTest {
             RoleAuthorizationHandler.checkOwnerOrAdmin(sellerUser.getId());
         });
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void checkRoles_ClaimsOnlyPrincipal_ReturnsUser() {
+        // Configurar: principal construido solo con los claims del token
+        ClaimsUser principal = new ClaimsUser("user1", "customer@example.com", "CUSTOMER");
+        authenticateUser(principal);
+        
+        // Ejecutar
+        User result = RoleAuthorizationHandler.checkCustomer();
+        
+        // Verificar
+        assertEquals("user1", result.getId());
+        assertEquals("CUSTOMER", result.getRole());
+    }
+}
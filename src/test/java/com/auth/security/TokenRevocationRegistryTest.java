@@ -0,0 +1,86 @@
+package com.auth.security;
+
+import com.auth.model.RevokedToken;
+import com.auth.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del registro en memoria de tokens revocados
+ */
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new TokenRevocationRegistry(revokedTokenRepository, 1000, 0.01, 30000);
+    }
+
+    private static RevokedToken revokedToken(String jti, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(jti);
+        revokedToken.setExpiresAt(expiresAt);
+        revokedToken.setRevokedAt(Instant.now());
+        return revokedToken;
+    }
+
+    @Test
+    void revoke_TakesEffectLocallyAndIsPersisted() {
+        registry.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        assertTrue(registry.isRevoked("jti-1"));
+        assertFalse(registry.isRevoked("jti-2"));
+        assertFalse(registry.isRevoked(null));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void isRevoked_NotRevokedTokens_NoDatabaseAccess() {
+        registry.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(registry.isRevoked("otro-" + i));
+        }
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verifyNoMoreInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void poll_PicksUpRevocationsFromOtherInstances() {
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(revokedToken("remoto-1", Instant.now().plusSeconds(60))));
+
+        registry.poll();
+
+        assertTrue(registry.isRevoked("remoto-1"));
+    }
+
+    @Test
+    void poll_ExpiredRevocations_Pruned() {
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(revokedToken("vigente", Instant.now().plusSeconds(60)),
+                        revokedToken("expirado", Instant.now().minusSeconds(1))));
+
+        registry.poll();
+
+        assertEquals(1, registry.size());
+        assertTrue(registry.isRevoked("vigente"));
+        assertFalse(registry.isRevoked("expirado"));
+    }
+}
@@ -1,22 +1,47 @@
 package com.auth.service;
 
+import com.auth.model.RefreshToken;
 import com.auth.model.User;
 import com.auth.model.dto.AuthPayload;
+import com.auth.model.dto.LoginInput;
 import com.auth.model.dto.RegisterInput;
+import com.auth.model.dto.TokenPayload;
+import com.auth.repository.RefreshTokenRepository;
 import com.auth.repository.UserRepository;
 import com.auth.security.JwtTokenProvider;
+import com.auth.security.LoginAttemptThrottle;
+import com.auth.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AuthServiceTest {
@@ -30,6 +55,21 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
@@ -38,6 +78,14 @@ class AuthServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    private static User profile(String id, String email, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+
     @Test
     void registerCustomer_Success() {
         // Arrange
@@ -57,7 +105,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(jwtTokenProvider.createToken(anyString(), anyString())).thenReturn("jwt-token");
+        when(jwtTokenProvider.createToken(anyString(), anyString(), anyString())).thenReturn("jwt-token");
 
         // Act
         AuthPayload result = authService.register(input, "CUSTOMER");
@@ -88,7 +136,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(jwtTokenProvider.createToken(anyString(), anyString())).thenReturn("jwt-token");
+        when(jwtTokenProvider.createToken(anyString(), anyString(), anyString())).thenReturn("jwt-token");
 
         // Act
         AuthPayload result = authService.register(input, "SELLER");
@@ -119,7 +167,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(jwtTokenProvider.createToken(anyString(), anyString())).thenReturn("jwt-token");
+        when(jwtTokenProvider.createToken(anyString(), anyString(), anyString())).thenReturn("jwt-token");
 
         // Act
         AuthPayload result = authService.register(input, "ADMIN");
@@ -167,4 +215,287 @@ class AuthServiceTest {
 
         assertEquals("Password must be at least 8 characters long and contain both letters and numbers", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_Success_UsesCredentialsProjection() {
+        // Arrange
+        LoginInput input = new LoginInput();
+        input.setEmail("cliente@example.com");
+        input.setPassword("Password123");
+
+        User credentials = new User();
+        credentials.setId("1");
+        credentials.setEmail(input.getEmail());
+        credentials.setPassword("hashed");
+        credentials.setRole("CUSTOMER");
+        credentials.setFavorites(null);
+
+        when(userRepository.findCredentialsByEmail(input.getEmail())).thenReturn(Optional.of(credentials));
+        when(passwordEncoder.matches("Password123", "hashed")).thenReturn(true);
+        when(jwtTokenProvider.createToken(input.getEmail(), "CUSTOMER", "1")).thenReturn("jwt-token");
+
+        // Act
+        AuthPayload result = authService.login(input, "10.0.0.1");
+
+        // Assert
+        assertEquals("jwt-token", result.getToken());
+        verify(userRepository, never()).findByEmail(anyString());
+        assertEquals(1, meterRegistry.get("auth.requests").tag("operation", "login").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("auth.requests.phase").tag("phase", "bcrypt").timer().count());
+        assertEquals(1, meterRegistry.get("auth.requests.phase").tag("phase", "mongo").timer().count());
+    }
+
+    @Test
+    void login_Throttled_SkipsPasswordCheck() {
+        // Arrange
+        LoginInput input = new LoginInput();
+        input.setEmail("cliente@example.com");
+        input.setPassword("Password123");
+
+        doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(loginAttemptThrottle).checkAllowed(input.getEmail(), "10.0.0.1");
+
+        // Act & Assert
+        assertThrows(ResponseStatusException.class, () -> authService.login(input, "10.0.0.1"));
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        assertEquals(1, meterRegistry.get("auth.requests").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void login_InvalidPassword_RecordsFailure() {
+        // Arrange
+        LoginInput input = new LoginInput();
+        input.setEmail("cliente@example.com");
+        input.setPassword("incorrecta1");
+
+        User credentials = new User();
+        credentials.setPassword("hashed");
+
+        when(userRepository.findCredentialsByEmail(input.getEmail())).thenReturn(Optional.of(credentials));
+        when(passwordEncoder.matches("incorrecta1", "hashed")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> authService.login(input, "10.0.0.1"));
+        // El intento reservado en checkAllowed sigue contando
+        verify(loginAttemptThrottle).checkAllowed(input.getEmail(), "10.0.0.1");
+        verify(loginAttemptThrottle, never()).release(anyString(), anyString());
+        verify(loginAttemptThrottle, never()).recordSuccess(anyString(), anyString());
+    }
+
+    @Test
+    void login_HashingOverloaded_ReleasesAttempt() {
+        // Arrange
+        LoginInput input = new LoginInput();
+        input.setEmail("cliente@example.com");
+        input.setPassword("Password123");
+
+        User credentials = new User();
+        credentials.setPassword("hashed");
+
+        when(userRepository.findCredentialsByEmail(input.getEmail())).thenReturn(Optional.of(credentials));
+        when(passwordEncoder.matches("Password123", "hashed"))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Act & Assert
+        assertThrows(ResponseStatusException.class, () -> authService.login(input, "10.0.0.1"));
+        verify(loginAttemptThrottle).release(input.getEmail(), "10.0.0.1");
+    }
+
+    @Test
+    void refreshToken_Valid_RotatesWithoutPasswordCheck() {
+        // Arrange
+        Instant sessionExpiresAt = Instant.now().plusSeconds(3600);
+        RefreshToken used = new RefreshToken();
+        used.setUserId("1");
+        used.setEmail("cliente@example.com");
+        used.setRole("CUSTOMER");
+        used.setExpiresAt(sessionExpiresAt);
+
+        when(refreshTokenService.consume("refresh-1")).thenReturn(Optional.of(used));
+        when(userRepository.findProfileById("1")).thenReturn(Optional.of(profile("1", "test@example.com", "CUSTOMER")));
+        when(refreshTokenService.issue("1", "test@example.com", "CUSTOMER", sessionExpiresAt)).thenReturn("refresh-2");
+        when(jwtTokenProvider.createToken("test@example.com", "CUSTOMER", "1")).thenReturn("jwt-token");
+
+        // Act
+        TokenPayload result = authService.refreshToken("refresh-1");
+
+        // Assert
+        assertEquals("jwt-token", result.getToken());
+        assertEquals("refresh-2", result.getRefreshToken());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(userRepository, never()).findCredentialsByEmail(anyString());
+    }
+
+    @Test
+    void refreshToken_RoleChanged_IssuesTokenWithCurrentRole() {
+        RefreshToken used = new RefreshToken();
+        used.setUserId("1");
+        used.setEmail("test@example.com");
+        used.setRole("ADMIN");
+        used.setExpiresAt(Instant.now().plusSeconds(3600));
+        when(refreshTokenService.consume("refresh-1")).thenReturn(Optional.of(used));
+        when(userRepository.findProfileById("1")).thenReturn(Optional.of(profile("1", "test@example.com", "CUSTOMER")));
+
+        authService.refreshToken("refresh-1");
+
+        verify(jwtTokenProvider).createToken("test@example.com", "CUSTOMER", "1");
+        verify(refreshTokenService).issue("1", "test@example.com", "CUSTOMER", used.getExpiresAt());
+    }
+
+    @Test
+    void refreshToken_UserDeleted_ThrowsException() {
+        RefreshToken used = new RefreshToken();
+        used.setUserId("1");
+        when(refreshTokenService.consume("refresh-1")).thenReturn(Optional.of(used));
+        when(userRepository.findProfileById("1")).thenReturn(Optional.empty());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> authService.refreshToken("refresh-1"));
+
+        assertEquals(401, exception.getStatusCode().value());
+        verify(jwtTokenProvider, never()).createToken(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void refreshToken_AlreadyUsed_ThrowsException() {
+        when(refreshTokenService.consume("refresh-1")).thenReturn(Optional.empty());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> authService.refreshToken("refresh-1"));
+
+        assertEquals(401, exception.getStatusCode().value());
+    }
+
+    @Test
+    void logout_RevokesAccessTokenAndRefreshToken() {
+        // Arrange
+        // El claim exp se guarda en segundos
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 60) * 1000);
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(expiration);
+
+        // Act
+        boolean result = authService.logout(claims, "refresh-1");
+
+        // Assert
+        assertTrue(result);
+        verify(refreshTokenService).consume("refresh-1");
+        verify(tokenRevocationRegistry).revoke("jti-1", expiration.toInstant());
+    }
+
+    @Test
+    void logout_WithoutRefreshToken_RevokesAllUserRefreshTokens() {
+        // Arrange
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 60) * 1000);
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(expiration);
+        claims.put("uid", "1");
+
+        // Act
+        authService.logout(claims, null);
+
+        // Assert
+        verify(refreshTokenService).revokeAll("1");
+        verify(refreshTokenService, never()).consume(any());
+        verify(tokenRevocationRegistry).revoke("jti-1", expiration.toInstant());
+    }
+
+    @Test
+    void refreshToken_AfterLogoutWithoutRefreshToken_Fails() {
+        // Arrange: refresh tokens reales sobre un repositorio en memoria
+        Map<String, RefreshToken> stored = new ConcurrentHashMap<>();
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            stored.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(refreshTokenRepository.consumeByTokenHash(anyString(), any(Instant.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.remove(invocation.<String>getArgument(0))));
+        when(refreshTokenRepository.deleteByUserId(anyString())).thenAnswer(invocation -> {
+            String userId = invocation.getArgument(0);
+            long before = stored.size();
+            stored.values().removeIf(token -> token.getUserId().equals(userId));
+            return before - stored.size();
+        });
+        RefreshTokenService refreshTokens = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(authService, "refreshTokenService", refreshTokens);
+
+        String refreshToken = refreshTokens.issue("1", "cliente@example.com", "CUSTOMER");
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(new Date(System.currentTimeMillis() + 60000));
+        claims.put("uid", "1");
+
+        // Act
+        authService.logout(claims, null);
+
+        // Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> authService.refreshToken(refreshToken));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+
+    @Test
+    void register_ConcurrentDuplicateEmail_ThrowsException() {
+        // Arrange
+        RegisterInput input = new RegisterInput();
+        input.setEmail("nuevo@example.com");
+        input.setPassword("Password123");
+
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.save(any(User.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            authService.register(input, "CUSTOMER");
+        });
+
+        assertEquals("Email already exists", exception.getMessage());
+    }
+
+    @Test
+    void addToFavorites_Customer_AtomicUpdate() {
+        // Arrange
+        User updatedUser = new User();
+        updatedUser.setId("1");
+        updatedUser.setRole("CUSTOMER");
+        updatedUser.setFavorites(List.of("p1"));
+
+        when(productService.productExistsAsync("p1")).thenReturn(Mono.just(true));
+        when(userRepository.addFavorite("1", "p1", true)).thenReturn(Optional.of(updatedUser));
+
+        // Act
+        User result = authService.addToFavorites("1", "p1", true).block();
+
+        // Assert
+        assertEquals(List.of("p1"), result.getFavorites());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void addToFavorites_NonCustomer_ThrowsException() {
+        // Arrange
+        when(productService.productExistsAsync("p1")).thenReturn(Mono.just(true));
+        when(userRepository.addFavorite("2", "p1", false)).thenReturn(Optional.empty());
+        when(userRepository.existsById("2")).thenReturn(true);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            authService.addToFavorites("2", "p1", false).block();
+        });
+
+        assertEquals("Solo los clientes pueden modificar su lista de favoritos", exception.getMessage());
+    }
+
+    @Test
+    void removeFromFavorites_UserNotFound_ThrowsException() {
+        // Arrange
+        when(userRepository.removeFavorite("99", "p1", false)).thenReturn(Optional.empty());
+        when(userRepository.existsById("99")).thenReturn(false);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            authService.removeFromFavorites("99", "p1", false);
+        });
+
+        assertEquals("Usuario no encontrado", exception.getMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package com.auth.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la comprobación en segundo plano de las dependencias
+ */
+class DependencyHealthServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProductService productService;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private DependencyHealthService healthService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        healthService = new DependencyHealthService(mongoTemplate, productService, 10000, 30000, clock::get);
+    }
+
+    @Test
+    void getSnapshot_ServedWithoutCallingDependencies() {
+        when(productService.isServiceAvailable()).thenReturn(true);
+        healthService.refresh();
+        clearInvocations(mongoTemplate, productService);
+
+        DependencyHealthService.Snapshot snapshot = healthService.getSnapshot();
+
+        assertTrue(snapshot.databaseConnected());
+        assertTrue(snapshot.productsServiceConnected());
+        assertFalse(healthService.isStale(snapshot));
+        verifyNoInteractions(mongoTemplate, productService);
+    }
+
+    @Test
+    void isStale_NoCheckYetOrOlderThanThreshold() {
+        assertTrue(healthService.isStale(healthService.getSnapshot()));
+
+        healthService.refresh();
+        clock.addAndGet(31000);
+
+        assertEquals(31000, healthService.getAgeMillis(healthService.getSnapshot()));
+        assertTrue(healthService.isStale(healthService.getSnapshot()));
+    }
+
+    @Test
+    void refresh_DatabaseDown_ReportedInSnapshot() {
+        when(mongoTemplate.executeCommand(anyString())).thenThrow(new IllegalStateException("sin conexión"));
+
+        healthService.refresh();
+
+        assertFalse(healthService.getSnapshot().databaseConnected());
+    }
+}
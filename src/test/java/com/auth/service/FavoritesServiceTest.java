@@ -0,0 +1,90 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.model.dto.Edge;
+import com.auth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la paginación y el conteo de favoritos
+ */
+class FavoritesServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private FavoritesService favoritesService;
+
+    private User loadedUser;
+    private User leanUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        loadedUser = new User();
+        loadedUser.setId("1");
+        loadedUser.setFavorites(List.of("p1", "p2", "p3"));
+
+        // Perfil cargado sin el arreglo de favoritos
+        leanUser = new User();
+        leanUser.setId("1");
+        leanUser.setFavorites(null);
+    }
+
+    @Test
+    void getFavoritesPage_LoadedFavorites_PaginatesInMemory() {
+        Connection<String> firstPage = favoritesService.getFavoritesPage(loadedUser, 2, null);
+        Connection<String> secondPage = favoritesService.getFavoritesPage(loadedUser, 2,
+                firstPage.getPageInfo().getEndCursor());
+
+        assertEquals(List.of("p1", "p2"), firstPage.getEdges().stream().map(Edge::getNode).toList());
+        assertTrue(firstPage.getPageInfo().isHasNextPage());
+        assertEquals(List.of("p3"), secondPage.getEdges().stream().map(Edge::getNode).toList());
+        assertFalse(secondPage.getPageInfo().isHasNextPage());
+        verify(userRepository, never()).findFavorites("1", 0, 3);
+    }
+
+    @Test
+    void getFavoritesPage_LeanUser_QueriesOnlyRequestedSlice() {
+        when(userRepository.findFavorites("1", 0, 3)).thenReturn(List.of("p1", "p2", "p3"));
+
+        Connection<String> page = favoritesService.getFavoritesPage(leanUser, 2, null);
+
+        assertEquals(2, page.getEdges().size());
+        assertTrue(page.getPageInfo().isHasNextPage());
+    }
+
+    @Test
+    void countFavorites_SeveralUsers_OneQueryAndZeroForMissing() {
+        when(userRepository.countFavorites(List.of("1", "2"))).thenReturn(Map.of("1", 5000));
+
+        assertEquals(Map.of("1", 5000, "2", 0), favoritesService.countFavorites(List.of("1", "2")));
+        verify(userRepository, times(1)).countFavorites(anyCollection());
+    }
+
+    @Test
+    void getFavoritesPage_InvalidArguments_ThrowsException() {
+        assertThrows(ResponseStatusException.class,
+                () -> favoritesService.getFavoritesPage(loadedUser, 2, "no-es-un-cursor"));
+        assertThrows(ResponseStatusException.class,
+                () -> favoritesService.getFavoritesPage(loadedUser, 0, null));
+    }
+}
@@ -0,0 +1,113 @@
+package com.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de existencia de productos
+ */
+class ProductExistenceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductExistenceCache cache;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductExistenceCache(100, 60000, 0, meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    private Function<String, Mono<Boolean>> loader(boolean exists) {
+        return id -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return exists;
+        });
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("products.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_PositiveResult_ServedFromCache() {
+        assertTrue(cache.get("p1", loader(true), false).block());
+        assertTrue(cache.get("p1", loader(true), false).block());
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("hit"));
+        assertEquals(1.0, count("miss"));
+    }
+
+    @Test
+    void get_NegativeResult_UsesNegativeTtl() {
+        // El TTL negativo es 0: cada consulta vuelve al servicio de productos
+        assertFalse(cache.get("p1", loader(false), false).block());
+        assertFalse(cache.get("p1", loader(false), false).block());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_ConcurrentLookups_CoalescedIntoOneCall() {
+        Sinks.One<Boolean> response = Sinks.one();
+        Function<String, Mono<Boolean>> slowLoader = id -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        };
+
+        Mono<Boolean> first = cache.get("p1", slowLoader, false);
+        Mono<Boolean> second = cache.get("p1", slowLoader, false);
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(true);
+
+        assertSame(first, second);
+        assertTrue(second.block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_CircuitOpen_ServesStaleEntry() {
+        cache.get("p1", loader(false), false).block();
+
+        Boolean exists = cache.get("p1", id -> Mono.error(new IllegalStateException("circuito abierto")), true).block();
+
+        assertFalse(exists);
+        assertEquals(1.0, count("stale"));
+    }
+
+    @Test
+    void get_LoaderFailsWithoutPreviousEntry_PropagatesError() {
+        Mono<Boolean> result = cache.get("p1", id -> Mono.error(new IllegalStateException("sin servicio")), false);
+
+        assertThrows(IllegalStateException.class, result::block);
+        // La siguiente consulta no reutiliza la llamada fallida
+        assertTrue(cache.get("p1", loader(true), false).block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_CacheFull_EvictsNegativeEntriesBeforePositive() {
+        SimpleMeterRegistry smallRegistry = new SimpleMeterRegistry();
+        ProductExistenceCache small = new ProductExistenceCache(10, 60000, 30000, smallRegistry);
+        small.get("existe", loader(true), false).block();
+        for (int i = 0; i < 20; i++) {
+            small.get("falta" + i, loader(false), false).block();
+        }
+        calls.set(0);
+
+        assertTrue(small.get("existe", loader(true), false).block());
+        assertEquals(0, calls.get());
+        assertTrue(smallRegistry.get("products.cache.size").gauge().value() <= 10);
+    }
+}
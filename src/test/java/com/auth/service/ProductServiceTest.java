@@ -0,0 +1,186 @@
+package com.auth.service;
+
+import com.auth.config.WebClientConfig;
+import com.auth.model.dto.FavoriteProduct;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la verificación de productos contra un servicio de productos simulado
+ */
+class ProductServiceTest {
+
+    private static final Pattern ALIAS = Pattern.compile("(p\\d+): product\\(id: \\\\\"([^\\\\]+)\\\\\"\\)");
+
+    private HttpServer productsServer;
+    private ProductService productService;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger maxAliasesPerRequest = new AtomicInteger();
+    private volatile int failuresBeforeSuccess;
+    private volatile int failureStatus = 500;
+    private volatile String failureBody = "{}";
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productsServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        productsServer.createContext("/graphql", exchange -> {
+            int attempt = requests.incrementAndGet();
+            byte[] body;
+            int status;
+            if (attempt <= failuresBeforeSuccess) {
+                status = failureStatus;
+                body = failureBody.getBytes(StandardCharsets.UTF_8);
+            } else {
+                // Devuelve un producto por alias salvo para los IDs que empiezan por "missing"
+                status = 200;
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                Matcher alias = ALIAS.matcher(request);
+                StringJoiner data = new StringJoiner(",", "{\"data\":{", "}}");
+                int aliases = 0;
+                while (alias.find()) {
+                    aliases++;
+                    String product = alias.group(2).startsWith("missing") ? "null"
+                            : "{\"id\":\"" + alias.group(2) + "\",\"name\":\"Producto\",\"price\":10.0}";
+                    data.add("\"" + alias.group(1) + "\":" + product);
+                }
+                maxAliasesPerRequest.accumulateAndGet(aliases, Math::max);
+                body = data.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        productsServer.start();
+
+        String url = "http://localhost:" + productsServer.getAddress().getPort();
+        circuitBreaker = CircuitBreaker.ofDefaults("productService");
+        productService = new ProductService(new WebClientConfig().webClientBuilder(50, 100), url, circuitBreaker,
+                new ProductExistenceCache(1000, 60000, 10000, new SimpleMeterRegistry()), 20, 50, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(productService, "retryDelayMillis", 10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productsServer.stop(0);
+    }
+
+    @Test
+    void productExistsAsync_TransientErrors_RetriesUntilSuccess() {
+        failuresBeforeSuccess = 2;
+
+        Boolean exists = productService.productExistsAsync("p1").block(Duration.ofSeconds(5));
+
+        assertTrue(exists);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void productExistsAsync_RetriesExhausted_ReturnsFalse() {
+        failuresBeforeSuccess = 10;
+
+        Boolean exists = productService.productExistsAsync("p1").block(Duration.ofSeconds(5));
+
+        assertFalse(exists);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void productExistsAsync_ClientError_DoesNotRetry() {
+        failuresBeforeSuccess = 10;
+        failureStatus = 400;
+
+        Boolean exists = productService.productExistsAsync("p1").block(Duration.ofSeconds(5));
+
+        assertFalse(exists);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void productExistsAsync_ErrorsWithoutData_RetriedAndNotCachedAsMissing() {
+        failuresBeforeSuccess = 10;
+        failureStatus = 200;
+        failureBody = "{\"errors\":[{\"message\":\"Internal error\"}],\"data\":null}";
+
+        assertFalse(productService.productExistsAsync("p1").block(Duration.ofSeconds(5)));
+        assertEquals(3, requests.get());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+
+        // El fallo no se guardó como negativo: la siguiente consulta vuelve al servicio
+        failuresBeforeSuccess = 0;
+        assertTrue(productService.productExistsAsync("p1").block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void productExistsAsync_MissingAliasWithErrors_TreatedAsFailure() {
+        failuresBeforeSuccess = 10;
+        failureStatus = 200;
+        failureBody = "{\"errors\":[{\"message\":\"Validation error\"}],\"data\":{}}";
+
+        assertFalse(productService.productExistsAsync("p1").block(Duration.ofSeconds(5)));
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void productExistsAsync_ConcurrentLookups_SentAsOneAliasedRequest() {
+        List<Boolean> results = Flux.just("p1", "p2", "missing-3", "p4")
+                .flatMapSequential(productService::productExistsAsync)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(true, true, false, true), results);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void findProducts_FetchesAllIdsInOneRequest() {
+        Map<String, FavoriteProduct> products =
+                productService.findProducts(List.of("p1", "missing-2", "p3")).block(Duration.ofSeconds(5));
+
+        assertEquals(2, products.size());
+        assertEquals("Producto", products.get("p1").getName());
+        assertEquals(10.0, products.get("p3").getPrice());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void findProducts_MoreIdsThanMaxSize_SplitsIntoBoundedRequests() {
+        List<String> ids = IntStream.range(0, 120).mapToObj(i -> "id-" + i).toList();
+
+        Map<String, FavoriteProduct> products = productService.findProducts(ids).block(Duration.ofSeconds(5));
+
+        assertEquals(120, products.size());
+        assertEquals(3, requests.get());
+        assertEquals(50, maxAliasesPerRequest.get());
+    }
+
+    @Test
+    void findProducts_ServiceUnavailable_ReturnsEmptyMap() {
+        failuresBeforeSuccess = 10;
+
+        assertTrue(productService.findProducts(List.of("p1")).block(Duration.ofSeconds(5)).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.auth.service;
+
+import com.auth.model.RefreshToken;
+import com.auth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la emisión y el consumo de refresh tokens
+ */
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void issue_StoresOnlyHashWithExpiration() {
+        String token = refreshTokenService.issue("1", "cliente@example.com", "CUSTOMER");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(token), saved.getValue().getTokenHash());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void issue_WithSessionExpiration_KeepsIt() {
+        Instant sessionExpiresAt = Instant.now().plusSeconds(60);
+
+        refreshTokenService.issue("1", "cliente@example.com", "CUSTOMER", sessionExpiresAt);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(sessionExpiresAt, saved.getValue().getExpiresAt());
+    }
+
+    @Test
+    void consume_LooksUpByHash() {
+        RefreshToken stored = new RefreshToken();
+        when(refreshTokenRepository.consumeByTokenHash(eq(RefreshTokenService.hash("abc")), any(Instant.class)))
+                .thenReturn(Optional.of(stored));
+
+        assertSame(stored, refreshTokenService.consume("abc").orElseThrow());
+        assertTrue(refreshTokenService.consume(" ").isEmpty());
+    }
+}
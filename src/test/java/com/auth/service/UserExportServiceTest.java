@@ -0,0 +1,76 @@
+package com.auth.service;
+
+import com.auth.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la exportación NDJSON de usuarios
+ */
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userExportService = new UserExportService(userRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(userExportService, "batchSize", 2);
+    }
+
+    @Test
+    void export_WritesOneJsonObjectPerLineAndClosesCursor() throws Exception {
+        ObjectId id = new ObjectId();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamForExport(List.of("email"), "CUSTOMER", 2)).thenReturn(Stream.of(
+                new Document("_id", id).append("email", "uno@example.com"),
+                new Document("_id", new ObjectId()).append("email", "dos@example.com"),
+                new Document("_id", new ObjectId()).append("email", "tres@example.com")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.export(List.of("id", "email"), "CUSTOMER", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":\"" + id.toHexString() + "\",\"email\":\"uno@example.com\"}", lines[0]);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_OnlyId_RequestsNoStoredFields() throws Exception {
+        ObjectId id = new ObjectId();
+        when(userRepository.streamForExport(List.of(), null, 2)).thenReturn(Stream.of(new Document("_id", id)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.export(userExportService.resolveFields("id"), null, out);
+
+        assertEquals("{\"id\":\"" + id.toHexString() + "\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void resolveFields_PasswordOrUnknownField_Rejected() {
+        assertThrows(ResponseStatusException.class, () -> userExportService.resolveFields("email,password"));
+        assertThrows(ResponseStatusException.class, () -> userExportService.resolveFields("ssn"));
+        assertEquals(List.of("id", "email", "firstName", "lastName", "role"), userExportService.resolveFields(null));
+    }
+}
@@ -0,0 +1,113 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.ImportStatus;
+import com.auth.model.dto.ImportUserResult;
+import com.auth.model.dto.ImportUsersReport;
+import com.auth.model.dto.RegisterInput;
+import com.auth.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la importación masiva de usuarios
+ */
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userImportService = new UserImportService(userRepository, 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.destroy();
+    }
+
+    private static RegisterInput row(String email, String password) {
+        RegisterInput input = new RegisterInput();
+        input.setEmail(email);
+        input.setPassword(password);
+        input.setFirstName("Nombre");
+        input.setLastName("Apellido");
+        return input;
+    }
+
+    @Test
+    void importUsers_MixedRows_ReportsEachRow() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("existente@example.com"));
+        // En el segundo bloque, carrera@ lo registró otra petición entre la consulta y la inserción
+        when(userRepository.insertUnordered(anyList())).thenReturn(Map.of(), Map.of(1, 11000));
+
+        ImportUsersReport report = userImportService.importUsers(List.of(
+                row("uno@example.com", "Password123"),
+                row("dos@example.com", "corta"),
+                row("uno@example.com", "Password123"),
+                row("existente@example.com", "Password123"),
+                row("tres@example.com", "Password123"),
+                row("carrera@example.com", "Password123")), "CUSTOMER");
+
+        List<ImportStatus> statuses = report.getResults().stream().map(ImportUserResult::getStatus).toList();
+        assertEquals(List.of(ImportStatus.CREATED, ImportStatus.INVALID, ImportStatus.DUPLICATE,
+                ImportStatus.DUPLICATE, ImportStatus.CREATED, ImportStatus.DUPLICATE), statuses);
+        assertEquals(2, report.getCreated());
+        assertEquals(4, report.getFailed());
+        assertNotNull(report.getResults().get(0).getId());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    void importUsers_PasswordsHashedWithBcrypt() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.insertUnordered(anyList())).thenReturn(Map.of());
+
+        userImportService.importUsers(List.of(row("uno@example.com", "Password123")), "SELLER");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).insertUnordered(inserted.capture());
+        User user = inserted.getValue().get(0);
+        assertTrue(user.getPassword().startsWith("$2a$"));
+        assertEquals("SELLER", user.getRole());
+    }
+
+    @Test
+    void importUsers_InvalidRoleOrTooManyRows_ThrowsException() {
+        assertThrows(ResponseStatusException.class,
+                () -> userImportService.importUsers(List.of(row("uno@example.com", "Password123")), "ROOT"));
+        assertThrows(ResponseStatusException.class,
+                () -> userImportService.importUsers(Collections.nCopies(11, row("a@b.com", "Password123")), "CUSTOMER"));
+    }
+
+    @Test
+    void hashingParallelism_LeavesProcessorsForLogins() {
+        assertEquals(4, UserImportService.hashingParallelism(0, 8));
+        assertEquals(7, UserImportService.hashingParallelism(16, 8));
+        assertEquals(3, UserImportService.hashingParallelism(3, 8));
+        assertEquals(1, UserImportService.hashingParallelism(0, 1));
+        assertEquals(1, UserImportService.hashingParallelism(0, 2));
+    }
+}
@@ -0,0 +1,72 @@
+package com.auth.service;
+
+import com.auth.model.User;
+import com.auth.model.dto.Connection;
+import com.auth.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del listado paginado de usuarios
+ */
+class UserListingServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserListingService userListingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userListingService = new UserListingService(userRepository);
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(id + "@example.com");
+        return user;
+    }
+
+    @Test
+    void getUsersPage_CursorContinuesAfterLastId() {
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+        String third = new ObjectId().toHexString();
+        when(userRepository.findPage(isNull(), isNull(), anyInt(), any())).thenReturn(List.of(user(first), user(second), user(third)));
+
+        Connection<User> page = userListingService.getUsersPage(2, null, null, List.of("email", "favoritesCount"));
+
+        assertEquals(2, page.getEdges().size());
+        assertTrue(page.getPageInfo().isHasNextPage());
+        // Solo se proyectan campos almacenados y se pide un elemento extra
+        verify(userRepository).findPage(null, null, 3, List.of("email"));
+
+        when(userRepository.findPage("CUSTOMER", second, 3, List.of())).thenReturn(List.of(user(third)));
+        Connection<User> next = userListingService.getUsersPage(2, page.getPageInfo().getEndCursor(), "CUSTOMER", List.of());
+
+        assertEquals(third, next.getEdges().get(0).getNode().getId());
+        assertFalse(next.getPageInfo().isHasNextPage());
+    }
+
+    @Test
+    void getUsersPage_InvalidArguments_Rejected() {
+        assertThrows(ResponseStatusException.class, () -> userListingService.getUsersPage(0, null, null, List.of()));
+        assertThrows(ResponseStatusException.class, () -> userListingService.getUsersPage(101, null, null, List.of()));
+        assertThrows(ResponseStatusException.class, () -> userListingService.getUsersPage(10, "no-es-un-cursor", null, List.of()));
+    }
+}